@@ -0,0 +1,94 @@
+#!/bin/bash
+# archiving ended months out of bookings_hot on PostgreSQL: latency of the FUTURE and CURRENT booking lists with
+# every booking in bookings_hot and after the archiver moved the ended months into their own partitions, the
+# latency of those lists while it runs, the connections it held longer than the Hikari leak threshold (5 s) and the
+# steps it repeated after a lock wait
+# the dataset goes into its own database, ARCHIVE_DB, recreated on every run
+#   BOOKINGS     historical bookings, ending over the two years before the retention (default 10000000)
+#   CURRENT      current and future bookings (default 20000)
+#   CONCURRENCY  callers of the latency runs (default 1)
+#   DURATION     measured seconds per list (default 20)
+#   ARCHIVE_DB   database created for the run (default shareit_archive)
+DB_PROFILE=
+source "$(dirname "$0")/common.sh"
+BOOKINGS=${BOOKINGS:-10000000}
+CURRENT=${CURRENT:-20000}
+CONCURRENCY=${CONCURRENCY:-1}
+DURATION=${DURATION:-20}
+ARCHIVE_DB=${ARCHIVE_DB:-shareit_archive}
+MAIN_URL=$PG_URL
+PG_URL=${PG_URL%/*}/$ARCHIVE_DB
+SERVER_ARGS="-Dspring.datasource.url=jdbc:postgresql://${PG_URL#*@}"
+HOT_BEFORE="date_trunc('month', localtimestamp - interval '30 days')"
+
+# bulk insert with the indexes and the primary key dropped, they are built once afterwards
+seed() {
+  local indexes
+  sql "insert into users (name, email) select 'user', 'archive-' || g || '@load.ru' from generate_series(1, 1000) g"
+  sql "insert into items (name, description, available, owner_id)
+       select 'Дрель ' || g, 'Аккумуляторная дрель', true, u.ids[1 + g % 100]
+       from generate_series(0, 9999) g, (select array_agg(id order by id) ids from users) u"
+  indexes=$(sql "select replace(indexdef, ' ON ONLY ', ' ON ') from pg_indexes
+                 where tablename = 'bookings' and indexname <> 'bookings_pkey'")
+  for index in $(sql "select indexname from pg_indexes where tablename = 'bookings' and indexname <> 'bookings_pkey'")
+  do
+    sql "drop index $index"
+  done
+  sql "alter table bookings drop constraint bookings_pkey"
+  sql "insert into bookings (date_start, date_end, item_id, booker_id, status)
+       select s, s + interval '1 day', i.ids[1 + g % 10000], u.ids[1 + g * 7 % 1000], g % 3
+       from (select g, localtimestamp - interval '790 days' + random() * interval '730 days' s
+             from generate_series(1, $BOOKINGS) g) t,
+            (select array_agg(id order by id) ids from items) i, (select array_agg(id order by id) ids from users) u"
+  sql "insert into bookings (date_start, date_end, item_id, booker_id, status)
+       select s, s + interval '2 days', i.ids[1 + g % 10000], u.ids[1 + g * 7 % 1000], g % 3
+       from (select g, localtimestamp - interval '1 day' + random() * interval '60 days' s
+             from generate_series(1, $CURRENT) g) t,
+            (select array_agg(id order by id) ids from items) i, (select array_agg(id order by id) ids from users) u"
+  sql "alter table bookings add primary key (id, date_end)"
+  while read -r index; do
+    sql "$index"
+  done <<< "$indexes"
+  sql "analyze"
+}
+
+# measure <label> [duration]: the first user owns every hundredth item, the second booked every seventh booking
+measure() {
+  local owner booker
+  owner=$(sql "select min(id) from users")
+  booker=$(sql "select min(id) + 1 from users")
+  for state in FUTURE CURRENT; do
+    load label="$1 booker $state" concurrency="$CONCURRENCY" duration="${2:-$DURATION}" \
+      user="$booker" url="$SERVER_URL/bookings?state=$state&from=0&size=10"
+    load label="$1 owner $state" concurrency="$CONCURRENCY" duration="${2:-$DURATION}" \
+      user="$owner" url="$SERVER_URL/bookings/owner?state=$state&from=0&size=10"
+  done
+}
+
+build
+stop_apps
+trap stop_apps EXIT
+psql "$MAIN_URL" -Atqc "drop database if exists $ARCHIVE_DB"
+psql "$MAIN_URL" -Atqc "create database $ARCHIVE_DB"
+
+SERVER_ARGS="$SERVER_ARGS -Dshareit.bookings.archive.enabled=false" start_server
+seed
+echo "bookings=$(sql "select count(*) from bookings")" \
+  "bookings_hot=$(sql "select pg_size_pretty(pg_total_relation_size('bookings_hot'))")"
+measure "one partition"
+stop_apps
+
+started=$(date +%s)
+SERVER_ARGS="$SERVER_ARGS -Dspring.datasource.hikari.leak-detection-threshold=5000" start_server
+measure "while archiving" 15 &
+while [ "$(sql "select count(*) from bookings_hot where date_end < $HOT_BEFORE")" != 0 ] \
+  || [ "$(sql "select count(*) from pg_class where relname ~ '^bookings_p' and relkind = 'r' and not relispartition")" != 0 ]
+do
+  sleep 5
+done
+echo "archived months=$(($(sql "select count(*) from pg_inherits where inhparent = 'bookings'::regclass") - 1))" \
+  "in $(($(date +%s) - started)) s," \
+  "leak warnings=$(grep -c 'Connection leak detection' "$LOG_DIR/server.log" || true)," \
+  "step retries=$(grep -c 'WARN .* BookingArchiveScheduler' "$LOG_DIR/server.log" || true)"
+wait
+measure "months archived"
@@ -0,0 +1,85 @@
+#!/bin/bash
+# booking list endpoints on a PostgreSQL database with 1M bookings: statements, rows and bytes the server
+# fetches from the database per request, counted on the wire by WireMeter (statements include the BEGIN and
+# COMMIT the driver sends for each transaction), and latency under load.
+# BASELINE=<git revision> measures a server built from that revision the same way, e.g. BASELINE=4def1a2^
+# for the eager item/booker mapping the booking lists used before they were loaded with one joined query
+#   BOOKINGS     bookings seeded once into the database behind PG_URL (default 1000000)
+#   CONCURRENCY  callers during the latency run (default 20)
+#   DURATION     measured seconds per endpoint (default 20)
+DB_PROFILE=
+source "$(dirname "$0")/common.sh"
+BOOKINGS=${BOOKINGS:-1000000}
+CONCURRENCY=${CONCURRENCY:-20}
+DURATION=${DURATION:-20}
+PG_TARGET=${PG_TARGET:-localhost:5432}
+METER_PORT=5433
+METER_URL=http://localhost:5434
+SAMPLES=20
+
+seed() {
+  if [ "$(sql "select count(*) from users where email = 'load-owner-1@load.ru'")" != 0 ]; then
+    return
+  fi
+  sql "insert into users (name, email) select 'owner', 'load-owner-' || g || '@load.ru' from generate_series(1, 100) g"
+  sql "insert into users (name, email) select 'booker', 'load-booker-' || g || '@load.ru' from generate_series(1, 1000) g"
+  sql "insert into items (name, description, available, owner_id)
+       select 'Дрель ' || g, 'Аккумуляторная дрель', true, o.ids[1 + g % 100]
+       from generate_series(0, 9999) g,
+            (select array_agg(id order by id) ids from users where email like 'load-owner-%') o"
+  sql "insert into bookings (date_start, date_end, item_id, booker_id, status)
+       select s, s + interval '1 day', i.ids[1 + g % 10000], b.ids[1 + g * 7 % 1000], g % 3
+       from generate_series(1, $BOOKINGS) g
+            cross join lateral (select localtimestamp - interval '730 days' + g % 26280 * interval '1 hour' s) t,
+            (select array_agg(i.id order by i.id) ids from items i
+             join users u on u.id = i.owner_id where u.email like 'load-owner-%') i,
+            (select array_agg(id order by id) ids from users where email like 'load-booker-%') b"
+  sql "analyze"
+}
+
+# measure <label>: per-request database traffic of each endpoint, then its latency under load
+measure() {
+  local owner booker booking before
+  owner=$(sql "select id from users where email = 'load-owner-1@load.ru'")
+  booker=$(sql "select id from users where email = 'load-booker-1@load.ru'")
+  booking=$(sql "select b.id from bookings b join items i on i.id = b.item_id where i.owner_id = $owner limit 1")
+  while read -r user path; do
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $user" "$SERVER_URL$path"
+    before=$(curl -sf "$METER_URL")
+    for _ in $(seq 1 $SAMPLES); do
+      curl -sf -o /dev/null -H "X-Sharer-User-Id: $user" "$SERVER_URL$path"
+    done
+    echo "$before $(curl -sf "$METER_URL")" | awk -v label="$1 $path" -v n=$SAMPLES \
+      '{ printf "%-48s statements=%-5.1f rows=%-7.1f bytes=%d\n", label, ($4 - $1) / n, ($5 - $2) / n, ($6 - $3) / n }'
+    load label="$1 ${path%%&*}" concurrency="$CONCURRENCY" duration="$DURATION" user="$user" url="$SERVER_URL$path"
+  done <<EOF
+$owner /bookings/owner?state=ALL&from=0&size=20
+$owner /bookings/owner?state=FUTURE&from=0&size=20
+$booker /bookings?state=ALL&from=0&size=20
+$booker /bookings?state=PAST&from=0&size=20
+$owner /bookings/$booking
+EOF
+}
+
+build
+stop_apps
+java -cp "$JAR" ru.practicum.shareit.benchmarks.WireMeter listen=$METER_PORT target="$PG_TARGET" \
+  > "$LOG_DIR/wire-meter.log" 2>&1 &
+meter=$!
+trap 'stop_apps; kill $meter; wait $meter 2> /dev/null || true' EXIT
+SERVER_ARGS="-Dspring.datasource.url=jdbc:postgresql://localhost:$METER_PORT/${PG_URL##*/}?sslmode=disable&gssEncMode=disable"
+
+# the current server applies the migrations before the dataset is seeded
+start_server
+seed
+measure current
+stop_apps
+
+if [ -n "${BASELINE:-}" ]; then
+  worktree=$LOG_DIR/baseline
+  git -C "$ROOT" worktree add --force --detach "$worktree" "$BASELINE" > /dev/null
+  SERVER_DIR=$worktree/server start_server
+  measure "$BASELINE"
+  stop_apps
+  git -C "$ROOT" worktree remove --force "$worktree"
+fi
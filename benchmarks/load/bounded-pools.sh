@@ -0,0 +1,32 @@
+#!/bin/bash
+# throughput and p50/p99 latency of the server in its default mode and with the bounded-pools profile
+# (explicit Tomcat and Hikari pools, open-in-view off), same dataset shape and request mix in both runs
+#   OWNERS       owners seeded per run, 10 items with 2 approved bookings each (default 10)
+#   CONCURRENCY  callers per measurement, space separated (default "50 200")
+#   DURATION     measured seconds per measurement (default 20)
+source "$(dirname "$0")/common.sh"
+OWNERS=${OWNERS:-10}
+CONCURRENCY=${CONCURRENCY:-50 200}
+DURATION=${DURATION:-20}
+
+build
+stop_apps
+trap stop_apps EXIT
+
+for mode in default bounded-pools; do
+  if [ "$mode" = default ]; then
+    start_server
+  else
+    start_server "$mode"
+  fi
+  targets=()
+  for o in $(seq 1 "$OWNERS"); do
+    read -r owner booker <<< "$(seed_owner "$mode-$o-$$" 10 2)"
+    targets+=(user="$owner" url="$SERVER_URL/items" url="$SERVER_URL/bookings/owner?state=ALL"
+      user="$booker" url="$SERVER_URL/bookings?state=FUTURE" url="$SERVER_URL/requests/all")
+  done
+  for callers in $CONCURRENCY; do
+    load label="$mode" concurrency="$callers" duration="$DURATION" "${targets[@]}"
+  done
+  stop_apps
+done
@@ -0,0 +1,51 @@
+#!/bin/bash
+# gateway cost of relaying ~1 MB item pages with pass-through on and off: bytes the gateway allocates per
+# request and latency; jvm.gc.memory.allocated only grows at a collection, so the samples are bracketed by
+# collections forced with jcmd
+#   ITEMS        items on the page, about 330 bytes of JSON each (default 3000)
+#   SAMPLES      sequential requests for the allocation average (default 200)
+#   CONCURRENCY  callers during the latency run (default 10)
+#   DURATION     measured seconds per mode (default 20)
+# both applications run with a bounded heap (JVM_ARGS, default -Xmx512m) so the two fit next to each other
+JVM_ARGS=${JVM_ARGS:--Xmx512m}
+source "$(dirname "$0")/common.sh"
+ITEMS=${ITEMS:-3000}
+SAMPLES=${SAMPLES:-200}
+CONCURRENCY=${CONCURRENCY:-10}
+DURATION=${DURATION:-20}
+
+build
+stop_apps
+trap stop_apps EXIT
+start_server
+owner=$(post "$SERVER_URL/users" - "{\"name\":\"owner\",\"email\":\"pass-through-$$@load.ru\"}")
+description=$(printf 'Аккумуляторная дрель %.0s' $(seq 1 8))
+for i in $(seq 1 "$ITEMS"); do
+  printf '{"name":"Дрель %d","description":"%s","available":true}\n' "$i" "$description"
+done | curl -sf -o /dev/null -H 'Content-Type: application/x-ndjson' -H "X-Sharer-User-Id: $owner" \
+  -X POST "$SERVER_URL/items/import" --data-binary @-
+path="/items?from=0&size=$ITEMS"
+
+allocated() {
+  jcmd "$(fuser 8080/tcp 2> /dev/null | awk '{ print $1 }')" GC.run > /dev/null
+  sleep 1
+  metric "$GATEWAY_URL" jvm.gc.memory.allocated
+}
+
+echo "response bytes=$(curl -sf -H "X-Sharer-User-Id: $owner" "$SERVER_URL$path" | wc -c)"
+
+for mode in true false; do
+  start_gateway "" "-Dshareit-gateway.pass-through=$mode"
+  for _ in $(seq 1 20); do
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $owner" "$GATEWAY_URL$path"
+  done
+  before=$(allocated)
+  for _ in $(seq 1 "$SAMPLES"); do
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $owner" "$GATEWAY_URL$path"
+  done
+  awk -v mode="$mode" -v before="$before" -v after="$(allocated)" \
+    -v n="$SAMPLES" 'BEGIN { printf "pass-through=%-5s allocated per request=%.0f KB\n", mode, (after - before) / n / 1024 }'
+  load label="pass-through=$mode" concurrency="$CONCURRENCY" duration="$DURATION" user="$owner" \
+    url="$GATEWAY_URL$path"
+  stop_gateway
+done
@@ -0,0 +1,34 @@
+#!/bin/bash
+# gateway throughput at 500 concurrent callers through the shared pooled client to the server, for several
+# pool sizes; peak leased and pending pool connections are sampled from the gateway metrics during each run
+#   POOL_SIZES  connections to the server, total and per route, space separated (default "20 500")
+#   CALLERS     concurrent callers (default 500)
+#   DURATION    measured seconds per pool size (default 20)
+source "$(dirname "$0")/common.sh"
+POOL_SIZES=${POOL_SIZES:-20 500}
+CALLERS=${CALLERS:-500}
+DURATION=${DURATION:-20}
+POOL="httpcomponents.httpclient.pool.total"
+
+build
+stop_apps
+trap stop_apps EXIT
+start_server
+read -r owner booker <<< "$(seed_owner "gateway-$$" 10 2)"
+
+for size in $POOL_SIZES; do
+  start_gateway "" "-Dshareit-gateway.http.max-total=$size -Dshareit-gateway.http.max-per-route=$size"
+  while sleep 0.5; do
+    echo "$(metric "$GATEWAY_URL" "$POOL.connections?tag=state:leased" VALUE)" \
+      "$(metric "$GATEWAY_URL" "$POOL.pending" VALUE)"
+  done > "$LOG_DIR/pool-$size.txt" &
+  sampler=$!
+  load label="pool=$size" concurrency="$CALLERS" duration="$DURATION" \
+    user="$owner" url="$GATEWAY_URL/items" url="$GATEWAY_URL/users/$owner" \
+    user="$booker" url="$GATEWAY_URL/bookings?state=ALL"
+  kill "$sampler"
+  wait "$sampler" 2> /dev/null || true
+  awk -v size="$size" '$1 > leased { leased = $1 } $2 > pending { pending = $2 }
+    END { printf "pool=%-5d peak leased=%d peak pending=%d\n", size, leased, pending }' "$LOG_DIR/pool-$size.txt"
+  stop_gateway
+done
@@ -0,0 +1,58 @@
+#!/bin/bash
+# overlap checks and free windows for items with thousands of bookings, on PostgreSQL: latency of
+# GET /items/{id}/availability over a week and over the whole history, and of POST /bookings for a period taken
+# by an approved booking (409 after the overlap check), with the bookings_item_end_idx index and without it
+#   SIZES        approved one-hour bookings per item, two hours apart and centered on now (default "1000 10000")
+#   CONCURRENCY  callers during each run (default 10)
+#   DURATION     measured seconds per run (default 20)
+DB_PROFILE=
+source "$(dirname "$0")/common.sh"
+SIZES=${SIZES:-1000 10000}
+CONCURRENCY=${CONCURRENCY:-10}
+DURATION=${DURATION:-20}
+INDEX="bookings_item_end_idx ON bookings (item_id, date_end)"
+
+# seed <bookings>: owner, booker and one item with that many bookings, created once per size
+seed() {
+  if [ "$(sql "select count(*) from users where email = 'avail-owner-$1@load.ru'")" = 0 ]; then
+    sql "insert into users (name, email) values ('owner', 'avail-owner-$1@load.ru'), ('booker', 'avail-booker-$1@load.ru')"
+    sql "insert into items (name, description, available, owner_id)
+         select 'Дрель', 'Аккумуляторная дрель', true, id from users where email = 'avail-owner-$1@load.ru'"
+    sql "insert into bookings (date_start, date_end, item_id, booker_id, status)
+         select s, s + interval '1 hour', i.id, b.id, 1
+         from generate_series(0, $1 - 1) g
+              cross join lateral (select date_trunc('hour', localtimestamp) + (2 * g - $1) * interval '1 hour' s) t,
+              items i join users o on o.id = i.owner_id and o.email = 'avail-owner-$1@load.ru',
+              users b
+         where b.email = 'avail-booker-$1@load.ru'"
+    sql "analyze bookings"
+  fi
+  echo "$(sql "select i.id from items i join users o on o.id = i.owner_id where o.email = 'avail-owner-$1@load.ru'")" \
+    "$(sql "select id from users where email = 'avail-booker-$1@load.ru'")"
+}
+
+# measure <label> <bookings> <item> <booker>
+measure() {
+  local availability=$SERVER_URL/items/$3/availability
+  echo "$1 windows: week=$(curl -sf "$availability?from=$(at 0)&to=$(at 168)" | grep -o '"start"' | wc -l)" \
+    "all=$(curl -sf "$availability?from=$(at "-$2")&to=$(at "$2")" | grep -o '"start"' | wc -l)"
+  load label="$1 availability week" concurrency="$CONCURRENCY" duration="$DURATION" \
+    url="$availability?from=$(at 0)&to=$(at 168)"
+  load label="$1 availability all" concurrency="$CONCURRENCY" duration="$DURATION" \
+    url="$availability?from=$(at "-$2")&to=$(at "$2")"
+  load label="$1 create overlapping" concurrency="$CONCURRENCY" duration="$DURATION" user="$4" \
+    body="{\"itemId\":$3,\"start\":\"$(at $(($2 / 2)))\",\"end\":\"$(at $(($2 / 2 + 3)))\"}" url="$SERVER_URL/bookings"
+}
+
+build
+stop_apps
+trap 'stop_apps; sql "create index if not exists $INDEX"' EXIT
+start_server
+
+for size in $SIZES; do
+  read -r item booker <<< "$(seed "$size")"
+  measure "bookings=$size index" "$size" "$item" "$booker"
+  sql "drop index bookings_item_end_idx"
+  measure "bookings=$size no index" "$size" "$item" "$booker"
+  sql "create index $INDEX"
+done
@@ -0,0 +1,28 @@
+#!/bin/bash
+# statements and latency of one owner item page (GET /items) for owners with 10, 100 and 1000 items,
+# each item with an approved next booking; the statement count should not grow with the page size
+#   SIZES     items per owner, space separated (default "10 100 1000")
+#   DURATION  measured seconds per size, one caller (default 10)
+source "$(dirname "$0")/common.sh"
+SIZES=${SIZES:-10 100 1000}
+DURATION=${DURATION:-10}
+STATEMENTS="shareit.http.statements?tag=method:GET&tag=uri:/items"
+
+build
+stop_apps
+trap stop_apps EXIT
+start_server
+
+for size in $SIZES; do
+  read -r owner _ <<< "$(seed_owner "items-$size-$$" "$size" 1)"
+  url="$SERVER_URL/items?from=0&size=$size"
+  curl -sf -o /dev/null -H "X-Sharer-User-Id: $owner" "$url"
+  count=$(metric "$SERVER_URL" "$STATEMENTS" COUNT)
+  total=$(metric "$SERVER_URL" "$STATEMENTS" TOTAL)
+  curl -sf -o /dev/null -H "X-Sharer-User-Id: $owner" "$url"
+  awk -v size="$size" -v count="$count" -v total="$total" \
+    -v after_count="$(metric "$SERVER_URL" "$STATEMENTS" COUNT)" \
+    -v after_total="$(metric "$SERVER_URL" "$STATEMENTS" TOTAL)" \
+    'BEGIN { printf "items=%-5d statements per page=%d\n", size, (after_total - total) / (after_count - count) }'
+  load label="items=$size" concurrency=1 duration="$DURATION" user="$owner" url="$url"
+done
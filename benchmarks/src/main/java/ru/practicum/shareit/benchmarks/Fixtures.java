@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusEnum;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 5, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(int id) {
+        return User.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@yandex.ru")
+                .build();
+    }
+
+    static ItemRequest request(int id, User requester) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Нужна аккумуляторная дрель на выходные, запрос " + id)
+                .requester(requester)
+                .created(NOW.minusDays(id % 30))
+                .build();
+    }
+
+    static Item item(int id, User owner, ItemRequest request) {
+        return Item.builder()
+                .id(id)
+                .name("Дрель " + id)
+                .description("Аккумуляторная дрель-шуруповёрт, два аккумулятора и набор бит")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+    }
+
+    static Booking booking(int id, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(NOW.plusDays(id % 30))
+                .end(NOW.plusDays(id % 30 + 2))
+                .item(item)
+                .booker(booker)
+                .status(StatusEnum.APPROVED)
+                .version(0)
+                .build();
+    }
+
+    static Comment comment(int id, Item item, User author) {
+        return Comment.builder()
+                .id(id)
+                .text("Отличная дрель, аккумулятора хватило на все выходные")
+                .item(item)
+                .author(author)
+                .date(NOW.minusDays(id % 30))
+                .build();
+    }
+}
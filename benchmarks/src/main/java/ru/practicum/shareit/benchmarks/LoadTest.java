@@ -0,0 +1,220 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// closed-loop HTTP load: each caller sends the next request as soon as the previous one answers
+// usage: java -cp benchmarks.jar ru.practicum.shareit.benchmarks.LoadTest label=... [user=id] url=... [url=...]
+//        [header=Name:Value] [body=json] [concurrency=50] [warmup=5] [duration=20]
+// user= sets X-Sharer-User-Id for the urls that follow it, body= makes them POST that JSON (an empty body= turns
+// GET back on)
+public class LoadTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final List<Target> targets = new ArrayList<>();
+    private final List<String> headers = new ArrayList<>();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private String label = "load";
+    private String user;
+    private String body;
+    private int concurrency = 50;
+    private int warmup = 5;
+    private int duration = 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTest test = new LoadTest();
+        for (String arg : args) {
+            test.parse(arg);
+        }
+        if (test.targets.isEmpty()) {
+            throw new IllegalArgumentException("Не указан ни один url");
+        }
+        test.run();
+    }
+
+    private void parse(String arg) {
+        int separator = arg.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Аргумент должен иметь вид ключ=значение: " + arg);
+        }
+        String value = arg.substring(separator + 1);
+        switch (arg.substring(0, separator)) {
+            case "label":
+                label = value;
+                break;
+            case "user":
+                user = value;
+                break;
+            case "body":
+                body = value.isEmpty() ? null : value;
+                break;
+            case "url":
+                targets.add(new Target(URI.create(value), user, body));
+                break;
+            case "header":
+                headers.addAll(Arrays.asList(value.split(":", 2)));
+                break;
+            case "concurrency":
+                concurrency = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmup = Integer.parseInt(value);
+                break;
+            case "duration":
+                duration = Integer.parseInt(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+        }
+    }
+
+    private void run() throws InterruptedException {
+        measure(warmup);
+        Result result = measure(duration);
+        long[] latencies = result.latencies();
+        System.out.printf("%-32s callers=%-4d requests=%-8d rps=%-9.1f p50=%-8.2f p99=%-8.2f max=%-8.2f "
+                        + "statuses=%s%n", label, concurrency, latencies.length, latencies.length / (double) duration,
+                millis(percentile(latencies, 0.5)), millis(percentile(latencies, 0.99)),
+                millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]), result.statuses());
+    }
+
+    private Result measure(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Caller> callers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Caller caller = new Caller(i, deadline);
+            callers.add(caller);
+            executor.execute(caller);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(seconds + TIMEOUT.getSeconds() * 2, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return new Result(callers);
+    }
+
+    private HttpRequest request(Target target) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.uri).timeout(TIMEOUT);
+        if (target.body != null) {
+            builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(target.body));
+        } else {
+            builder.GET();
+        }
+        if (!headers.isEmpty()) {
+            builder.headers(headers.toArray(String[]::new));
+        }
+        if (target.user != null) {
+            builder.header(USER_HEADER, target.user);
+        }
+        return builder.build();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private class Caller implements Runnable {
+
+        private final int offset;
+        private final long deadline;
+        private final Map<String, AtomicLong> statuses = new HashMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Caller(int offset, long deadline) {
+            this.offset = offset;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            for (int i = offset; System.nanoTime() < deadline; i++) {
+                Target target = targets.get(i % targets.size());
+                long start = System.nanoTime();
+                String status;
+                try {
+                    HttpResponse<Void> response = client.send(request(target),
+                            HttpResponse.BodyHandlers.discarding());
+                    status = String.valueOf(response.statusCode());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception ex) {
+                    status = ex.getClass().getSimpleName();
+                }
+                record(System.nanoTime() - start);
+                statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    private static class Target {
+
+        private final URI uri;
+        private final String user;
+        private final String body;
+
+        Target(URI uri, String user, String body) {
+            this.uri = uri;
+            this.user = user;
+            this.body = body;
+        }
+    }
+
+    private static class Result {
+
+        private final List<Caller> callers;
+
+        Result(List<Caller> callers) {
+            this.callers = callers;
+        }
+
+        long[] latencies() {
+            return callers.stream()
+                    .flatMapToLong(caller -> Arrays.stream(caller.latencies, 0, caller.count))
+                    .sorted()
+                    .toArray();
+        }
+
+        Map<String, Long> statuses() {
+            Map<String, Long> statuses = new TreeMap<>();
+            callers.forEach(caller -> caller.statuses.forEach((status, count) ->
+                    statuses.merge(status, count.get(), Long::sum)));
+            return statuses;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Booking booking;
+    private Item item;
+    private Comment comment;
+    private ItemRequest request;
+    private List<ItemDto> requestItems;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        request = Fixtures.request(1, booker);
+        item = Fixtures.item(1, owner, request);
+        booking = Fixtures.booking(1, item, booker);
+        comment = Fixtures.comment(1, item, booker);
+        requestItems = List.of(ItemMapper.toItemDTO(item), ItemMapper.toItemDTO(Fixtures.item(2, owner, request)));
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDTO(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToDto() {
+        return ItemRequestMapper.toItemRequestDto(request, requestItems);
+    }
+}
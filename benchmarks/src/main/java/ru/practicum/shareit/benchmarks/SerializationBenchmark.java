@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// list sizes of the default page and of a large page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ItemDto> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        User owner = Fixtures.user(1);
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            User booker = Fixtures.user(i + 1);
+            ItemRequest request = i % 2 == 0 ? Fixtures.request(i, booker) : null;
+            Item item = Fixtures.item(i, owner, request);
+            ItemDto itemDto = ItemMapper.toItemDTO(item);
+            itemDto.setLastBooking(ItemDto.ListBooking.builder().id(i * 2).bookerId(booker.getId()).build());
+            itemDto.setNextBooking(ItemDto.ListBooking.builder().id(i * 2 + 1).bookerId(booker.getId()).build());
+            List<ru.practicum.shareit.item.comment.CommentDto> comments = new ArrayList<>();
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(CommentMapper.toCommentDto(Fixtures.comment(i * COMMENTS_PER_ITEM + c, item, booker)));
+            }
+            itemDto.setComments(comments);
+            items.add(itemDto);
+            bookings.add(BookingMapper.toBookingDto(Fixtures.booking(i, item, booker)));
+        }
+    }
+
+    @Benchmark
+    public byte[] itemDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
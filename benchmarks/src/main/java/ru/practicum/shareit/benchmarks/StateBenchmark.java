@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.exceptions.UnknownStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+// the gateway keeps an identical copy of State; its classes cannot share a classpath with the server's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateBenchmark {
+
+    private String known = "FUTURE";
+    private String unknown = "UNSUPPORTED_STATUS";
+
+    @Benchmark
+    public ru.practicum.shareit.booking.model.State checkKnownState() {
+        return ru.practicum.shareit.booking.model.State.checkState(known);
+    }
+
+    @Benchmark
+    public Object checkUnknownState() {
+        try {
+            return ru.practicum.shareit.booking.model.State.checkState(unknown);
+        } catch (UnknownStatusException ex) {
+            return ex;
+        }
+    }
+}
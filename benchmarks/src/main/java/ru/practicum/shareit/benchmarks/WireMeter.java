@@ -0,0 +1,176 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+// TCP proxy in front of PostgreSQL that counts what the application exchanges with the database:
+// statements executed (Bind and simple Query messages), rows (DataRow messages) and bytes sent by the database
+// usage: java -cp benchmarks.jar ru.practicum.shareit.benchmarks.WireMeter [listen=5433] [target=localhost:5432]
+//        [http=5434]
+// the application connects to the listen port with sslmode=disable&gssEncMode=disable, so the protocol is readable;
+// GET on the http port answers "<statements> <rows> <bytes>" counted since start
+public class WireMeter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private int listen = 5433;
+    private String targetHost = "localhost";
+    private int targetPort = 5432;
+    private int http = 5434;
+
+    public static void main(String[] args) throws IOException {
+        WireMeter meter = new WireMeter();
+        for (String arg : args) {
+            meter.parse(arg);
+        }
+        meter.run();
+    }
+
+    private void parse(String arg) {
+        int separator = arg.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Аргумент должен иметь вид ключ=значение: " + arg);
+        }
+        String value = arg.substring(separator + 1);
+        switch (arg.substring(0, separator)) {
+            case "listen":
+                listen = Integer.parseInt(value);
+                break;
+            case "target":
+                targetHost = value.substring(0, value.lastIndexOf(':'));
+                targetPort = Integer.parseInt(value.substring(value.lastIndexOf(':') + 1));
+                break;
+            case "http":
+                http = Integer.parseInt(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+        }
+    }
+
+    private void run() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(http), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = String.format("%d %d %d%n", statements.get(), rows.get(), bytes.get())
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (ServerSocket listener = new ServerSocket(listen)) {
+            while (true) {
+                Socket client = listener.accept();
+                Socket database = new Socket(targetHost, targetPort);
+                pump(client, database, new MessageCounter(true) {
+                    @Override
+                    void message(byte type) {
+                        if (type == 'B' || type == 'Q') {
+                            statements.incrementAndGet();
+                        }
+                    }
+                });
+                pump(database, client, new MessageCounter(false) {
+                    @Override
+                    void message(byte type) {
+                        if (type == 'D') {
+                            rows.incrementAndGet();
+                        }
+                    }
+
+                    @Override
+                    void received(int count) {
+                        bytes.addAndGet(count);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to, MessageCounter counter) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int length;
+                while ((length = in.read(buffer)) >= 0) {
+                    counter.feed(buffer, length);
+                    out.write(buffer, 0, length);
+                }
+            } catch (IOException ex) {
+                // the other side closed the connection
+            } finally {
+                close(from);
+                close(to);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            // already closed
+        }
+    }
+
+    // splits a protocol stream into messages: a type byte (absent in the client's startup message)
+    // followed by a four-byte length that counts itself
+    private abstract static class MessageCounter {
+
+        private boolean typed;
+        private byte type;
+        private int header;
+        private int length;
+        private long remaining;
+
+        MessageCounter(boolean startup) {
+            typed = !startup;
+            header = startup ? 1 : 0;
+        }
+
+        void feed(byte[] buffer, int count) {
+            received(count);
+            int i = 0;
+            while (i < count) {
+                if (remaining > 0) {
+                    int skipped = (int) Math.min(remaining, count - i);
+                    remaining -= skipped;
+                    i += skipped;
+                } else if (header == 0) {
+                    type = buffer[i++];
+                    header = 1;
+                } else {
+                    length = length << 8 | buffer[i++] & 0xff;
+                    if (++header == 5) {
+                        if (typed) {
+                            message(type);
+                        }
+                        typed = true;
+                        remaining = length - 4;
+                        header = 0;
+                        length = 0;
+                    }
+                }
+            }
+        }
+
+        abstract void message(byte type);
+
+        void received(int count) {
+        }
+    }
+}
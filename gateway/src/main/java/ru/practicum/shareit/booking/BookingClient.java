@@ -1,62 +1,85 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.item.ItemClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(ServerTransport transport, ResponseCache cache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                transport,
+                API_PREFIX,
+                cache,
+                null,
+                List.of(ItemClient.API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> addBooking(Integer userId, BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> addBooking(Integer userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> updateStatus(Integer userId, Integer bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateStatus(Integer userId, Integer bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(Integer userId, Integer bookingId) {
+    public Mono<ResponseEntity<Object>> updateStatuses(Integer userId, List<BookingStatusUpdateDto> updates) {
+        return patch("/owner/status", userId, updates);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(Integer userId, Integer bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(Integer userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(Integer userId, String state, Integer from, Integer size, String after) {
         State.checkState(state);
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?" + pageQuery(after), userId, pageParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(Integer userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(Integer userId, String state, Integer from, Integer size,
+                                                     String after) {
         State.checkState(state);
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?" + pageQuery(after), userId, pageParameters(state, from, size, after));
+    }
+
+    public Mono<ResponseEntity<Object>> exportBookings(Integer userId, String state) {
+        State.checkState(state);
+        return stream("/export?state={state}", userId, Map.of("state", state));
+    }
+
+    public Mono<ResponseEntity<Object>> exportBookingsByOwner(Integer userId, String state) {
+        State.checkState(state);
+        return stream("/owner/export?state={state}", userId, Map.of("state", state));
+    }
+
+    private String pageQuery(String after) {
+        String query = "state={state}&from={from}&size={size}";
+        return after == null ? query : query + "&after={after}";
+    }
+
+    private Map<String, Object> pageParameters(String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 }
@@ -7,11 +7,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -22,41 +26,62 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                         @Valid @RequestBody BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                               @Valid @RequestBody BookingDto bookingDto) {
         return bookingClient.addBooking(userId, bookingDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                      @PathVariable Integer bookingId) {
+    public Mono<ResponseEntity<Object>> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                            @PathVariable Integer bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                  @RequestParam(defaultValue = "ALL") String state,
-                                                  @RequestParam(name = "from", defaultValue = "0")
-                                                  @PositiveOrZero Integer from,
-                                                  @RequestParam(name = "size", defaultValue = "10")
-                                                  @Positive Integer size) {
-        return bookingClient.getBookings(userId, state, from, size);
+    public Mono<ResponseEntity<Object>> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                        @RequestParam(name = "from", defaultValue = "0")
+                                                        @PositiveOrZero Integer from,
+                                                        @RequestParam(name = "size", defaultValue = "10")
+                                                        @Positive Integer size,
+                                                        @RequestParam(required = false) String after) {
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                 @RequestParam(defaultValue = "ALL") String state,
-                                                 @RequestParam(name = "from", defaultValue = "0")
-                                                 @PositiveOrZero Integer from,
-                                                 @RequestParam(name = "size", defaultValue = "10")
-                                                 @Positive Integer size) {
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+    public Mono<ResponseEntity<Object>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                       @RequestParam(name = "from", defaultValue = "0")
+                                                       @PositiveOrZero Integer from,
+                                                       @RequestParam(name = "size", defaultValue = "10")
+                                                       @Positive Integer size,
+                                                       @RequestParam(required = false) String after) {
+        return bookingClient.getBookingsByOwner(userId, state, from, size, after);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                          @RequestParam(defaultValue = "ALL") String state) {
+        return bookingClient.exportBookings(userId, state);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Object>> exportAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                         @RequestParam(defaultValue = "ALL") String state) {
+        return bookingClient.exportBookingsByOwner(userId, state);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                               @PathVariable Integer bookingId,
-                                               @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateStatus(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                     @PathVariable Integer bookingId,
+                                                     @RequestParam Boolean approved) {
         return bookingClient.updateStatus(userId, bookingId, approved);
     }
+
+    @PatchMapping("/owner/status")
+    public Mono<ResponseEntity<Object>> updateStatuses(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                       @RequestBody @NotEmpty
+                                                       List<@Valid BookingStatusUpdateDto> updates) {
+        return bookingClient.updateStatuses(userId, updates);
+    }
 }
@@ -2,6 +2,11 @@ package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.exceptions.UnknownStatusException;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public enum State {
     ALL,
     CURRENT,
@@ -10,11 +15,13 @@ public enum State {
     WAITING,
     REJECTED;
 
+    // unknown states are rejected without an intermediate IllegalArgumentException from valueOf
+    private static final Map<String, State> STATES = Arrays.stream(values())
+            .collect(Collectors.toMap(Enum::name, Function.identity()));
+
     public static State checkState(String check) {
-        State result;
-        try {
-            result = State.valueOf(check);
-        } catch (IllegalArgumentException ex) {
+        State result = STATES.get(check);
+        if (result == null) {
             throw new UnknownStatusException("Unknown state: " + check);
         }
         return result;
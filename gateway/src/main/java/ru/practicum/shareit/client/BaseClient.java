@@ -3,96 +3,124 @@ package ru.practicum.shareit.client;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private final ServerTransport transport;
+    private final String prefix;
+    private final ResponseCache cache;
+    private final String region;
+    private final List<String> invalidatedRegions;
+
+    public BaseClient(ServerTransport transport, String prefix, ResponseCache cache, String region,
+                      List<String> invalidatedRegions) {
+        this.transport = transport;
+        this.prefix = prefix;
+        this.cache = cache;
+        this.region = region;
+        this.invalidatedRegions = invalidatedRegions;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> cachedGet(String path) {
+        return cachedGet(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, int userId) {
+        return cachedGet(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return cache.get(region, path, userId, parameters, () -> get(path, userId, parameters));
+    }
+
+    protected Mono<ResponseEntity<Object>> stream(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        return transport.stream(HttpMethod.GET, prefix + path, headers, parameters);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, int userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected Mono<ResponseEntity<Object>> upload(String path, Integer userId, MediaType contentType, Object content) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        return transport.upload(HttpMethod.POST, prefix + path, headers, content)
+                .doFinally(signal -> cache.invalidate(invalidatedRegions));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = transport.exchange(method, prefix + path, headers, parameters, body);
+        if (method == HttpMethod.GET) {
+            return response;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return response.doFinally(signal -> cache.invalidate(invalidatedRegions));
     }
 
     private HttpHeaders defaultHeaders(Integer userId) {
@@ -104,18 +132,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${shareit-gateway.cache.enabled:false}") boolean enabled,
+                         @Value("${shareit-gateway.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-gateway.cache.ttl:30s}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String region, String path, Integer userId,
+                                            Map<String, Object> parameters,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = region + "#" + generation(region).get() + "#" + path
+                + (parameters != null ? new TreeMap<>(parameters) : "") + "#" + userId;
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loader.get()
+                .flatMap(ResponseCache::materialize)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.put(key, response);
+                    }
+                });
+    }
+
+    public void invalidate(Collection<String> regions) {
+        if (enabled) {
+            regions.forEach(region -> generation(region).incrementAndGet());
+        }
+    }
+
+    private static Mono<ResponseEntity<Object>> materialize(ResponseEntity<Object> response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders());
+        if (response.getBody() instanceof InputStreamResource) {
+            return Mono.fromCallable(() -> {
+                try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+                    return builder.<Object>body(body.readAllBytes());
+                }
+            });
+        }
+        if (!(response.getBody() instanceof StreamingBody)) {
+            return Mono.just(response);
+        }
+        return DataBufferUtils.join(((StreamingBody) response.getBody()).getContent())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return builder.<Object>body(bytes);
+                })
+                .defaultIfEmpty(builder.build());
+    }
+
+    private AtomicLong generation(String region) {
+        return generations.computeIfAbsent(region, key -> new AtomicLong());
+    }
+}
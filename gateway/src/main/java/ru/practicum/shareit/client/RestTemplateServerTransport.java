@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+@Component
+@Profile("!reactive")
+public class RestTemplateServerTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final HttpComponentsClientHttpRequestFactory uploadRequestFactory;
+    private final boolean passThrough;
+
+    public RestTemplateServerTransport(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                       HttpComponentsClientHttpRequestFactory requestFactory,
+                                       @Value("${shareit-gateway.pass-through:true}") boolean passThrough) {
+        this.requestFactory = requestFactory;
+        // same pooled client, but the body is written to the connection instead of a buffer first
+        this.uploadRequestFactory = new HttpComponentsClientHttpRequestFactory(requestFactory.getHttpClient());
+        this.uploadRequestFactory.setBufferRequestBody(false);
+        this.passThrough = passThrough;
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (passThrough) {
+            return Mono.fromCallable(() -> relay(requestFactory, method, path, headers, parameters, body));
+        }
+        return Mono.fromCallable(() -> send(method, path, headers, parameters, body));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> upload(HttpMethod method, String path, HttpHeaders headers, Object content) {
+        return Mono.fromCallable(() -> relay(uploadRequestFactory, method, path, headers, null, content));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> stream(HttpMethod method, String path, HttpHeaders headers,
+                                               @Nullable Map<String, Object> parameters) {
+        return Mono.fromCallable(() -> {
+            URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+            ClientHttpRequest request = requestFactory.createRequest(uri, method);
+            request.getHeaders().addAll(headers);
+            ClientHttpResponse response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(ServerTransport.endToEndHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(response.getBody()));
+        });
+    }
+
+    // the server's body is copied to the caller as it arrives and closed afterwards, which frees the connection
+    private ResponseEntity<Object> relay(HttpComponentsClientHttpRequestFactory factory, HttpMethod method,
+                                         String path, HttpHeaders headers,
+                                         @Nullable Map<String, Object> parameters, @Nullable Object body)
+            throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpRequest request = factory.createRequest(uri, method);
+        rest.httpEntityCallback(new HttpEntity<>(body, headers)).doWithRequest(request);
+        ClientHttpResponse response = request.execute();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getRawStatusCode())
+                .headers(ServerTransport.endToEndHeaders(response.getHeaders()));
+        if (response.getHeaders().getContentType() == null) {
+            response.close();
+            return builder.build();
+        }
+        return builder.body(new InputStreamResource(response.getBody()));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        // the body is written again by the gateway, so the server's framing and connection headers do not apply
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(ServerTransport.endToEndHeaders(response.getHeaders()))
+                    .body(response.getBody());
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface ServerTransport {
+
+    Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, "Keep-Alive");
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    default Mono<ResponseEntity<Object>> stream(HttpMethod method, String path, HttpHeaders headers,
+                                                @Nullable Map<String, Object> parameters) {
+        return exchange(method, path, headers, parameters, null);
+    }
+
+    // content is the caller's body as it arrives: an InputStreamResource in the blocking gateway,
+    // a StreamingBody in the reactive one
+    default Mono<ResponseEntity<Object>> upload(HttpMethod method, String path, HttpHeaders headers, Object content) {
+        return exchange(method, path, headers, null, content);
+    }
+
+    static HttpHeaders endToEndHeaders(@Nullable HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        if (source != null) {
+            source.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+@Getter
+@RequiredArgsConstructor
+public class StreamingBody {
+
+    private final Flux<DataBuffer> content;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public class StreamingBodyWriter implements HttpMessageWriter<StreamingBody> {
+
+    @Override
+    public List<MediaType> getWritableMediaTypes() {
+        return List.of(MediaType.ALL);
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
+        return StreamingBody.class.isAssignableFrom(elementType.toClass());
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<? extends StreamingBody> inputStream, ResolvableType elementType,
+                            @Nullable MediaType mediaType, ReactiveHttpOutputMessage message,
+                            Map<String, Object> hints) {
+        return message.writeWith(Mono.from(inputStream).flatMapMany(StreamingBody::getContent));
+    }
+}
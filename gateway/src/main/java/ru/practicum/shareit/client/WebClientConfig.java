@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${shareit-gateway.http.max-total:500}") int maxTotal,
+            @Value("${shareit-gateway.http.pool-timeout:5s}") Duration poolTimeout,
+            @Value("${shareit-gateway.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-gateway.http.idle-eviction:60s}") Duration idleEviction) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(poolTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public CodecCustomizer streamingBodyCodecCustomizer() {
+        return configurer -> configurer.customCodecs().register(new StreamingBodyWriter());
+    }
+
+    @Bean
+    public ClientHttpConnector clientHttpConnector(
+            ConnectionProvider connectionProvider,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+@Profile("reactive")
+public class WebClientServerTransport implements ServerTransport {
+
+    private final WebClient webClient;
+
+    public WebClientServerTransport(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                    ClientHttpConnector connector) {
+        this.webClient = builder
+                .baseUrl(serverUrl)
+                .clientConnector(connector)
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient
+                .method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = request;
+        if (body instanceof StreamingBody) {
+            spec = request.body(BodyInserters.fromDataBuffers(((StreamingBody) body).getContent()));
+        } else if (body != null) {
+            spec = request.bodyValue(body);
+        }
+        return spec.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(WebClientServerTransport::passThrough);
+    }
+
+    private static ResponseEntity<Object> passThrough(ResponseEntity<Flux<DataBuffer>> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(ServerTransport.endToEndHeaders(response.getHeaders()))
+                .body(new StreamingBody(response.getBody()));
+    }
+}
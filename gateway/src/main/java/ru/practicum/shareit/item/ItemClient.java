@@ -1,58 +1,73 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.request.ItemRequestClient;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
 
-    private static final String API_PREFIX = "/items";
+    public static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(ServerTransport transport, ResponseCache cache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                transport,
+                API_PREFIX,
+                cache,
+                API_PREFIX,
+                List.of(API_PREFIX, ItemRequestClient.API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> addItem(Integer userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(Integer userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Integer userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> importItems(Integer userId, MediaType contentType, Object content) {
+        return upload("/import", userId, contentType, content);
+    }
+
+    public Mono<ResponseEntity<Object>> exportItems(Integer userId) {
+        return stream("/export", userId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Integer userId, ItemDto itemDto) {
         return patch("/" + itemDto.getId(), userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Integer itemId, Integer userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Integer itemId, Integer userId) {
+        return cachedGet("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(Integer userId) {
-        return get("/", userId);
+    public Mono<ResponseEntity<Object>> getItemsByUserId(Integer userId) {
+        return cachedGet("/", userId);
     }
 
-    public ResponseEntity<Object> getItemsByUserIdWithPagination(Integer userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByUserIdWithPagination(Integer userId, Integer from, Integer size) {
         Map<String, Object> param = Map.of("from", from, "size", size);
-        return get("?from={from}&size={size}", userId, param);
+        return cachedGet("?from={from}&size={size}", userId, param);
     }
 
-    public ResponseEntity<Object> searchPagination(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchPagination(String text, Integer from, Integer size) {
         Map<String, Object> param = Map.of("text", text, "from", from, "size", size);
-        return get("/search?text={text}&from={from}&size={size}", 0, param);
+        return cachedGet("/search?text={text}&from={from}&size={size}", 0, param);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> param = Map.of("from", from, "to", to);
+        return cachedGet("/" + itemId + "/availability?from={from}&to={to}", null, param);
     }
 
-    public ResponseEntity<Object> addComment(Integer userId, Integer itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(Integer userId, Integer itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,47 +19,61 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                   @Valid @RequestBody ItemDto itemDto) {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        return itemClient.exportItems(userId);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                              @PathVariable("itemId") Integer itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                    @PathVariable("itemId") Integer itemId) {
         return itemClient.getItemById(itemId, userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable("itemId") Integer itemId,
-                                             @RequestHeader("X-Sharer-User-Id") Integer userId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable("itemId") Integer itemId,
+                                                   @RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                   @RequestBody ItemDto itemDto) {
         itemDto.setId(itemId);
         return itemClient.updateItem(userId, itemDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                      @RequestParam(name = "from", defaultValue = "0")
-                                                      @PositiveOrZero Integer from,
-                                                      @RequestParam(name = "size", defaultValue = "10")
-                                                      @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                            @RequestParam(name = "from", defaultValue = "0")
+                                                            @PositiveOrZero Integer from,
+                                                            @RequestParam(name = "size", defaultValue = "10")
+                                                            @Positive Integer size) {
         return itemClient.getItemsByUserIdWithPagination(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text,
-                                         @RequestParam(name = "from", defaultValue = "0")
-                                         @PositiveOrZero Integer from,
-                                         @RequestParam(name = "size", defaultValue = "10")
-                                         @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
+                                               @RequestParam(name = "from", defaultValue = "0")
+                                               @PositiveOrZero Integer from,
+                                               @RequestParam(name = "size", defaultValue = "10")
+                                               @Positive Integer size) {
         return itemClient.searchPagination(text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable("itemId") Integer itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                @PathVariable(value = "itemId") Integer itemId,
-                                                @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                      @PathVariable(value = "itemId") Integer itemId,
+                                                      @RequestBody CommentDto commentDto) {
         return itemClient.addComment(userId, itemId, commentDto);
     }
 }
\ No newline at end of file
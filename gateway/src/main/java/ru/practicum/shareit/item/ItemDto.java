@@ -5,6 +5,7 @@ import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @Data
@@ -13,8 +14,10 @@ public class ItemDto {
 
     private Integer id;
     @NotBlank
+    @Size(max = 60)
     private String name;
     @NotBlank
+    @Size(max = 200)
     private String description;
     @NotNull
     private Boolean available;
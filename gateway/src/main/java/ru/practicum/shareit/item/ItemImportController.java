@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+
+// the import body is handed to the server as it is read from the caller, it is never held in memory whole
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/items")
+@Profile("!reactive")
+public class ItemImportController {
+
+    private final ItemClient itemClient;
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream content) {
+        return itemClient.importItems(userId, contentType, new InputStreamResource(content));
+    }
+}
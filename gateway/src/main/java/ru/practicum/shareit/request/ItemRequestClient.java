@@ -1,45 +1,44 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
-    private static final String API_PREFIX = "/requests";
+    public static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(ServerTransport transport, ResponseCache cache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                transport,
+                API_PREFIX,
+                cache,
+                API_PREFIX,
+                List.of(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> addRequest(Integer userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(Integer userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(Integer userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getUserRequests(Integer userId) {
+        return cachedGet("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Integer userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(Integer userId, Integer from, Integer size) {
         Map<String, Object> param = Map.of("from", from, "size", size);
-        return get("/all?from={from}&size={size}", userId, param);
+        return cachedGet("/all?from={from}&size={size}", userId, param);
     }
 
-    public ResponseEntity<Object> getRequest(Integer userId, Integer requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequest(Integer userId, Integer requestId) {
+        return cachedGet("/" + requestId, userId);
     }
 }
@@ -1,47 +1,48 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
 
+import java.util.List;
 
 @Service
 public class UserClient extends BaseClient {
 
-    private static final String API_PREFIX = "/users";
+    public static final String API_PREFIX = "/users";
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(ServerTransport transport, ResponseCache cache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                transport,
+                API_PREFIX,
+                cache,
+                API_PREFIX,
+                List.of(API_PREFIX, ItemClient.API_PREFIX, ItemRequestClient.API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(Integer userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Integer userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUser(Integer userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getUser(Integer userId) {
+        return cachedGet("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("");
+    public Mono<ResponseEntity<Object>> getAll() {
+        return cachedGet("");
     }
 
-    public ResponseEntity<Object> deleteUser(Integer userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(Integer userId) {
         return delete("/" + userId);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 
@@ -17,28 +18,28 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserDto userDto) {
         return userClient.addUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable(value = "userId") Integer userId,
-                                             @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable(value = "userId") Integer userId,
+                                                   @RequestBody UserDto userDto) {
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable(value = "userId") Integer userId) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable(value = "userId") Integer userId) {
         return userClient.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getAll();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable(value = "userId") Integer userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable(value = "userId") Integer userId) {
         return userClient.deleteUser(userId);
     }
 }
\ No newline at end of file
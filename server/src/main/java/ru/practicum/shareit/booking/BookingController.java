@@ -1,14 +1,22 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +25,9 @@ import java.util.List;
 @Validated
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String FIRST_CURSOR = "first";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -32,23 +43,47 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(name = "from", defaultValue = "0")
-                                            @PositiveOrZero Integer from,
-                                            @RequestParam(name = "size", defaultValue = "10")
-                                            @Positive Integer size) {
-        return bookingService.findAllByBooker(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(name = "from", defaultValue = "0")
+                                                            @PositiveOrZero Integer from,
+                                                            @RequestParam(name = "size", defaultValue = "10")
+                                                            @Positive Integer size,
+                                                            @RequestParam(required = false) String after) {
+        if (after != null) {
+            return withNextCursor(bookingService.findAllByBookerAfter(userId, state, cursor(after), size), size);
+        }
+        return ResponseEntity.ok(bookingService.findAllByBooker(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                           @RequestParam(defaultValue = "ALL") String state,
-                                           @RequestParam(name = "from", defaultValue = "0")
-                                           @PositiveOrZero Integer from,
-                                           @RequestParam(name = "size", defaultValue = "10")
-                                           @Positive Integer size) {
-        return bookingService.findAllByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam(name = "from", defaultValue = "0")
+                                                           @PositiveOrZero Integer from,
+                                                           @RequestParam(name = "size", defaultValue = "10")
+                                                           @Positive Integer size,
+                                                           @RequestParam(required = false) String after) {
+        if (after != null) {
+            return withNextCursor(bookingService.findAllByOwnerAfter(userId, state, cursor(after), size), size);
+        }
+        return ResponseEntity.ok(bookingService.findAllByOwner(userId, state, from, size));
+    }
+
+    @GetMapping("/export")
+    public void exportAllByBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                  @RequestParam(defaultValue = "ALL") String state,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookingService.exportAllByBooker(userId, state, response.getOutputStream());
+    }
+
+    @GetMapping("/owner/export")
+    public void exportAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                 @RequestParam(defaultValue = "ALL") String state,
+                                 HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookingService.exportAllByOwner(userId, state, response.getOutputStream());
     }
 
     @PatchMapping("/{bookingId}")
@@ -57,4 +92,26 @@ public class BookingController {
                                    @RequestParam Boolean approved) {
         return bookingService.updateStatus(userId, bookingId, approved);
     }
-}
\ No newline at end of file
+
+    @PatchMapping("/owner/status")
+    public List<BookingStatusResultDto> updateStatuses(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                       @RequestBody @NotEmpty
+                                                       List<@Valid BookingStatusUpdateDto> updates) {
+        return bookingService.updateStatuses(userId, updates);
+    }
+
+    // an empty or "first" cursor starts cursor mode from the first page
+    private String cursor(String after) {
+        return after.isEmpty() || FIRST_CURSOR.equals(after) ? null : after;
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.StatusEnum;
+
+@Data
+@AllArgsConstructor
+public class BookingStatusResultDto {
+
+    private Integer bookingId;
+    private StatusEnum status;
+    private String error;
+}
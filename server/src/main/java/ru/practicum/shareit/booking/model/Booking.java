@@ -26,12 +26,15 @@ public class Booking {
     @Column(name = "date_end", nullable = false)
     private LocalDateTime end;
     @JoinColumn(name = "item_id", nullable = false)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Item item;
     @JoinColumn(name = "booker_id", nullable = false)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private User booker;
     @Column(name = "status")
     private StatusEnum status;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "item_bookings")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Integer itemId;
+    @Column(name = "last_booking_id")
+    private Integer lastBookingId;
+    @Column(name = "last_booker_id")
+    private Integer lastBookerId;
+    @Column(name = "next_booking_id")
+    private Integer nextBookingId;
+    @Column(name = "next_booker_id")
+    private Integer nextBookerId;
+    @Column(name = "rollover_at")
+    private LocalDateTime rolloverAt;
+
+    public boolean isDue(LocalDateTime time) {
+        return rolloverAt != null && !rolloverAt.isAfter(time);
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Set;
+
 public enum StatusEnum {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
-}
\ No newline at end of file
+    CANCELED;
+
+    public static final Set<StatusEnum> BLOCKING = Set.of(WAITING, APPROVED);
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingArchiveStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.bookings.archive.enabled", havingValue = "true")
+public class BookingArchiveScheduler {
+
+    // past deadlock_timeout (1 s by default), when PostgreSQL cancels an autovacuum that holds the table
+    private static final Duration LOCK_WAIT = Duration.ofSeconds(2);
+    private static final int STEP_ATTEMPTS = 10;
+
+    private final BookingArchiveStorage bookingArchiveStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public BookingArchiveScheduler(BookingArchiveStorage bookingArchiveStorage,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${shareit.bookings.archive.retention:30d}") Duration retention,
+                                   @Value("${shareit.bookings.archive.batch-size:10000}") int batchSize) {
+        this.bookingArchiveStorage = bookingArchiveStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.delay:3600000}")
+    public void archive() {
+        LocalDateTime before = YearMonth.from(LocalDateTime.now().minus(retention)).atDay(1).atStartOfDay();
+        Optional<YearMonth> month;
+        while ((month = step(() -> nextMonth(before).orElse(null))).isPresent()) {
+            if (!archive(month.get())) {
+                return;
+            }
+        }
+    }
+
+    // the month left detached by an interrupted run goes first
+    private Optional<YearMonth> nextMonth(LocalDateTime before) {
+        Optional<YearMonth> detached = bookingArchiveStorage.findDetachedMonth();
+        if (detached.isPresent()) {
+            return detached;
+        }
+        Optional<YearMonth> month = bookingArchiveStorage.findOldestHotMonth(before);
+        month.ifPresent(bookingArchiveStorage::createPartition);
+        return month;
+    }
+
+    // rows already moved are not visible through bookings until the attach
+    private boolean archive(YearMonth month) {
+        long moved = 0;
+        Optional<Integer> batch;
+        while ((batch = step(() -> bookingArchiveStorage.moveBatch(month, batchSize))).isPresent()
+                && batch.get() > 0) {
+            moved += batch.get();
+        }
+        boolean attached = batch.isPresent()
+                && step(() -> run(() -> bookingArchiveStorage.boundHot(month))).isPresent()
+                && step(() -> run(bookingArchiveStorage::validateHotBound)).isPresent()
+                && step(() -> run(() -> bookingArchiveStorage.attach(month))).isPresent();
+        if (attached) {
+            log.info("Бронирования, завершённые в {}, перенесены в архивную секцию: {}", month, moved);
+        }
+        return attached;
+    }
+
+    // a short transaction of its own; empty when another instance holds the lock or there is nothing to do.
+    // A step that does not get its table locks in time, or loses a deadlock to a request, is repeated
+    private <T> Optional<T> step(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Optional.ofNullable(transactionTemplate.execute(status -> {
+                    if (!bookingArchiveStorage.tryLock()) {
+                        return null;
+                    }
+                    bookingArchiveStorage.limitLockWait(LOCK_WAIT);
+                    return action.get();
+                }));
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == STEP_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Шаг архивации бронирований не получил блокировку, попытка {} из {}: {}", attempt,
+                        STEP_ATTEMPTS, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private static Boolean run(Runnable action) {
+        action.run();
+        return true;
+    }
+}
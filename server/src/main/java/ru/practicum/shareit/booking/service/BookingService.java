@@ -1,9 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -15,11 +24,25 @@ public interface BookingService {
 
     BookingDto updateStatus(Integer userId, Integer bookingId, boolean approved);
 
+    List<BookingStatusResultDto> updateStatuses(Integer userId, List<BookingStatusUpdateDto> updates);
+
     List<BookingDto> findAllByBooker(Integer userId, String state, Integer from, Integer size);
 
     List<BookingDto> findAllByOwner(Integer userId, String state, Integer from, Integer size);
 
-    Booking getLastBooking(Integer itemId);
+    List<BookingDto> findAllByBookerAfter(Integer userId, String state, String after, Integer size);
+
+    List<BookingDto> findAllByOwnerAfter(Integer userId, String state, String after, Integer size);
+
+    void exportAllByBooker(Integer userId, String state, OutputStream out) throws IOException;
+
+    void exportAllByOwner(Integer userId, String state, OutputStream out) throws IOException;
+
+    boolean hasStartedApprovedBooking(Integer userId, Integer itemId);
+
+    Map<Integer, ItemBookingSummary> getItemBookings(Collection<Integer> itemIds);
+
+    int rolloverItemBookings(int limit);
 
-    Booking getNextBooking(Integer itemId);
+    List<FreeWindowDto> getFreeWindows(Integer itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
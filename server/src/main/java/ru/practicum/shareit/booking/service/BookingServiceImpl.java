@@ -1,36 +1,63 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.utils.BookingUtils;
 import ru.practicum.shareit.booking.model.StatusEnum;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingSpecifications;
 import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
+import ru.practicum.shareit.exceptions.DuplicatedException;
 import ru.practicum.shareit.exceptions.NotFoundElementException;
 import ru.practicum.shareit.exceptions.UnknownStatusException;
+import ru.practicum.shareit.exceptions.ValidationElementException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_STATUS_UPDATES = 100;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final BookingStorage bookingStorage;
     private final BookingUtils bookingUtils;
+    private final ItemBookingSummaryStorage itemBookingSummaryStorage;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public BookingDto create(Integer userId, BookingDto bookingDto) {
-        Booking booking = bookingUtils.validation(userId, bookingDto);
-        return BookingMapper.toBookingDto(bookingStorage.save(booking));
+        Booking booking = bookingStorage.save(bookingUtils.validation(userId, bookingDto));
+        refreshItemBookings(booking.getItem().getId(), LocalDateTime.now());
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
@@ -46,13 +73,60 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto updateStatus(Integer userId, Integer bookingId, boolean approved) {
         Booking booking = getByBookingId(bookingId);
         bookingUtils.isOwner(userId, booking);
-        bookingUtils.isApprove(booking, approved);
-        if (approved) {
-            booking.setStatus(StatusEnum.APPROVED);
-        } else {
-            booking.setStatus(StatusEnum.REJECTED);
+        bookingUtils.isWaiting(booking);
+        StatusEnum status = approved ? StatusEnum.APPROVED : StatusEnum.REJECTED;
+        if (bookingStorage.updateStatus(bookingId, StatusEnum.WAITING, status) == 0) {
+            throw new DuplicatedException("Статус бронирования изменён параллельно, повторите запрос");
         }
-        return BookingMapper.toBookingDto(bookingStorage.save(booking));
+        booking.setStatus(status);
+        refreshItemBookings(booking.getItem().getId(), LocalDateTime.now());
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusResultDto> updateStatuses(Integer userId, List<BookingStatusUpdateDto> updates) {
+        bookingUtils.isUser(userId);
+        if (updates.size() > MAX_STATUS_UPDATES) {
+            throw new ValidationElementException("Нельзя изменить больше " + MAX_STATUS_UPDATES + " букингов за раз");
+        }
+        Map<Integer, Booking> bookings = bookingStorage.findAllWithItemByIdIn(updates.stream()
+                        .map(BookingStatusUpdateDto::getBookingId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        Set<Integer> processed = new HashSet<>();
+        Set<Integer> changedItemIds = new TreeSet<>();
+        List<BookingStatusResultDto> results = new ArrayList<>();
+        for (BookingStatusUpdateDto update : updates) {
+            Integer bookingId = update.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            if (bookingId == null || update.getApproved() == null) {
+                results.add(new BookingStatusResultDto(bookingId, null, "Не указан букинг или решение"));
+                continue;
+            }
+            if (!processed.add(bookingId)) {
+                results.add(new BookingStatusResultDto(bookingId, null, "Букинг указан повторно"));
+                continue;
+            }
+            if (booking == null) {
+                results.add(new BookingStatusResultDto(bookingId, null, "Букинг не найден"));
+                continue;
+            }
+            try {
+                bookingUtils.isOwner(userId, booking);
+                bookingUtils.isWaiting(booking);
+            } catch (NotFoundElementException | ValidationElementException ex) {
+                results.add(new BookingStatusResultDto(bookingId, null, ex.getMessage()));
+                continue;
+            }
+            booking.setStatus(update.getApproved() ? StatusEnum.APPROVED : StatusEnum.REJECTED);
+            results.add(new BookingStatusResultDto(bookingId, booking.getStatus(), null));
+            changedItemIds.add(booking.getItem().getId());
+        }
+        bookingStorage.flush();
+        LocalDateTime now = LocalDateTime.now();
+        changedItemIds.forEach(itemId -> refreshItemBookings(itemId, now));
+        return results;
     }
 
     @Override
@@ -65,22 +139,26 @@ public class BookingServiceImpl implements BookingService {
         List<Booking> result;
         switch (stateEnum) {
             case ALL:
-                result = bookingStorage.findAllByBookerIdOrderByStartDesc(userId, pageable);
+                result = bookingStorage.findAllByBookerIdOrderByStartDescIdDesc(userId, pageable);
                 break;
             case CURRENT:
-                result = bookingStorage.findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDesc(userId, now, now, pageable);
+                result = bookingStorage.findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(userId,
+                        now, now, pageable);
                 break;
             case PAST:
-                result = bookingStorage.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
+                result = bookingStorage.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, pageable);
                 break;
             case FUTURE:
-                result = bookingStorage.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, now, pageable);
+                result = bookingStorage.findAllByBookerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(userId,
+                        now, now, pageable);
                 break;
             case WAITING:
-                result = bookingStorage.findAllByBookerIdAndStatusOrderByStartDesc(userId, StatusEnum.WAITING, pageable);
+                result = bookingStorage.findAllByBookerIdAndStatusOrderByStartDescIdDesc(userId,
+                        StatusEnum.WAITING, pageable);
                 break;
             case REJECTED:
-                result = bookingStorage.findAllByBookerIdAndStatusOrderByStartDesc(userId, StatusEnum.REJECTED, pageable);
+                result = bookingStorage.findAllByBookerIdAndStatusOrderByStartDescIdDesc(userId,
+                        StatusEnum.REJECTED, pageable);
                 break;
             default:
                 throw new UnknownStatusException("Unknown state: " + state);
@@ -101,22 +179,26 @@ public class BookingServiceImpl implements BookingService {
         List<Booking> result;
         switch (stateEnum) {
             case ALL:
-                result = bookingStorage.findAllByItemOwnerIdOrderByStartDesc(userId, pageable);
+                result = bookingStorage.findAllByItemOwnerIdOrderByStartDescIdDesc(userId, pageable);
                 break;
             case CURRENT:
-                result = bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDesc(userId, now, now, pageable);
+                result = bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(userId,
+                        now, now, pageable);
                 break;
             case PAST:
-                result = bookingStorage.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
+                result = bookingStorage.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, pageable);
                 break;
             case FUTURE:
-                result = bookingStorage.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, now, pageable);
+                result = bookingStorage.findAllByItemOwnerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(userId,
+                        now, now, pageable);
                 break;
             case WAITING:
-                result = bookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, StatusEnum.WAITING, pageable);
+                result = bookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(userId,
+                        StatusEnum.WAITING, pageable);
                 break;
             case REJECTED:
-                result = bookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, StatusEnum.REJECTED, pageable);
+                result = bookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(userId,
+                        StatusEnum.REJECTED, pageable);
                 break;
             default:
                 throw new UnknownStatusException("Unknown state: " + state);
@@ -127,6 +209,57 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllByBookerAfter(Integer userId, String state, String after, Integer size) {
+        bookingUtils.isUser(userId);
+        return findAllAfter(BookingSpecifications.byBooker(userId), State.checkState(state), after, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllByOwnerAfter(Integer userId, String state, String after, Integer size) {
+        bookingUtils.isUser(userId);
+        return findAllAfter(BookingSpecifications.byOwner(userId), State.checkState(state), after, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllByBooker(Integer userId, String state, OutputStream out) throws IOException {
+        bookingUtils.isUser(userId);
+        export(BookingSpecifications.byBooker(userId), State.checkState(state), out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllByOwner(Integer userId, String state, OutputStream out) throws IOException {
+        bookingUtils.isUser(userId);
+        export(BookingSpecifications.byOwner(userId), State.checkState(state), out);
+    }
+
+    private void export(Specification<Booking> specification, State state, OutputStream out) throws IOException {
+        specification = specification.and(BookingSpecifications.inState(state, LocalDateTime.now()));
+        try (Stream<Booking> bookings = bookingStorage.streamAll(specification, EXPORT_FETCH_SIZE)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(BookingMapper.toBookingDto(iterator.next())));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    private List<BookingDto> findAllAfter(Specification<Booking> specification, State state, String after,
+                                          Integer size) {
+        specification = specification.and(BookingSpecifications.inState(state, LocalDateTime.now()));
+        if (after != null) {
+            specification = specification.and(BookingSpecifications.after(BookingCursor.decode(after)));
+        }
+        return bookingStorage.findFirst(specification, size).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Booking getByBookingId(Integer bookingId) {
@@ -136,15 +269,86 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public Booking getLastBooking(Integer itemId) {
-        return bookingStorage.findFirstByItemIdAndStartIsBeforeOrderByStartDesc(itemId, LocalDateTime.now())
-                .orElse(null);
+    public boolean hasStartedApprovedBooking(Integer userId, Integer itemId) {
+        return bookingStorage.existsStartedByBookerIdAndItemId(userId, itemId, StatusEnum.APPROVED, LocalDateTime.now());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Booking getNextBooking(Integer itemId) {
-        return bookingStorage.findFirstByItemIdAndStartIsAfterAndStatusOrderByStartAsc(itemId, LocalDateTime.now(),
-                StatusEnum.APPROVED).orElse(null);
+    public Map<Integer, ItemBookingSummary> getItemBookings(Collection<Integer> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, ItemBookingSummary> summaries = itemBookingSummaryStorage.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, summary -> summary));
+        List<Integer> due = summaries.values().stream()
+                .filter(summary -> summary.isDue(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!due.isEmpty()) {
+            Map<Integer, Booking> lastBookings = groupByItem(bookingStorage.findAllLastByItemIdIn(due, now));
+            Map<Integer, Booking> nextBookings = groupByItem(bookingStorage.findAllNextByItemIdIn(due, now,
+                    StatusEnum.APPROVED));
+            due.forEach(itemId -> {
+                ItemBookingSummary summary = new ItemBookingSummary();
+                summary.setItemId(itemId);
+                summarize(summary, lastBookings.get(itemId), nextBookings.get(itemId));
+                summaries.put(itemId, summary);
+            });
+        }
+        return summaries;
+    }
+
+    @Override
+    @Transactional
+    public int rolloverItemBookings(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        // rows are locked in item id order, like create and updateStatuses, so concurrent refreshes cannot deadlock
+        List<Integer> due = itemBookingSummaryStorage.findDueItemIds(now, PageRequest.of(0, limit));
+        due.forEach(itemId -> refreshItemBookings(itemId, now));
+        return due.size();
+    }
+
+    private void refreshItemBookings(Integer itemId, LocalDateTime now) {
+        ItemBookingSummary summary = itemBookingSummaryStorage.findLockedByItemId(itemId)
+                .orElseGet(ItemBookingSummary::new);
+        summary.setItemId(itemId);
+        List<Integer> itemIds = List.of(itemId);
+        summarize(summary, groupByItem(bookingStorage.findAllLastByItemIdIn(itemIds, now)).get(itemId),
+                groupByItem(bookingStorage.findAllNextByItemIdIn(itemIds, now, StatusEnum.APPROVED)).get(itemId));
+        summary.setRolloverAt(bookingStorage.findNextStartByItemId(itemId, now));
+        itemBookingSummaryStorage.save(summary);
+    }
+
+    private void summarize(ItemBookingSummary summary, Booking lastBooking, Booking nextBooking) {
+        summary.setLastBookingId(lastBooking != null ? lastBooking.getId() : null);
+        summary.setLastBookerId(lastBooking != null ? lastBooking.getBooker().getId() : null);
+        summary.setNextBookingId(nextBooking != null ? nextBooking.getId() : null);
+        summary.setNextBookerId(nextBooking != null ? nextBooking.getBooker().getId() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeWindowDto> getFreeWindows(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        List<Booking> bookings = bookingStorage.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, StatusEnum.BLOCKING, to, from);
+        List<FreeWindowDto> windows = new ArrayList<>();
+        LocalDateTime free = from;
+        for (Booking booking : bookings) {
+            if (booking.getStart().isAfter(free)) {
+                windows.add(new FreeWindowDto(free, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(free)) {
+                free = booking.getEnd();
+            }
+        }
+        if (free.isBefore(to)) {
+            windows.add(new FreeWindowDto(free, to));
+        }
+        return windows;
+    }
+
+    private Map<Integer, Booking> groupByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking,
+                        (first, second) -> first.getId() > second.getId() ? first : second));
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-bookings.rollover.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingSummaryScheduler {
+
+    private final BookingService bookingService;
+    private final int batchSize;
+
+    public ItemBookingSummaryScheduler(BookingService bookingService,
+                                       @Value("${shareit.item-bookings.rollover.batch-size:50}") int batchSize) {
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-bookings.rollover.delay:1000}")
+    public void rollover() {
+        int rolled;
+        do {
+            rolled = bookingService.rolloverItemBookings(batchSize);
+            if (rolled > 0) {
+                log.debug("Обновлены последнее/следующее бронирование у {} вещей", rolled);
+            }
+        } while (rolled == batchSize);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// a month is archived in steps, each in its own short transaction: the partition table is created detached,
+// the month's rows are moved into it in batches, bookings_hot gets a validated bound that excludes the month
+// and the table is attached, which then scans neither of them
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.bookings.archive.enabled", havingValue = "true")
+public class BookingArchiveStorage {
+
+    private static final long ARCHIVE_LOCK_KEY = 2302L;
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'bookings_p'yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("bookings_p\\d{4}_\\d{2}");
+    private static final String HOT_BOUND = "bookings_hot_archived";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // only one instance runs a step at a time; released on commit
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class,
+                ARCHIVE_LOCK_KEY));
+    }
+
+    // for the current transaction only: requests queue behind an alter table that waits for its lock
+    public void limitLockWait(Duration timeout) {
+        jdbcTemplate.queryForObject("select set_config('lock_timeout', ?, true)", String.class,
+                timeout.toMillis() + "ms");
+    }
+
+    public Optional<YearMonth> findOldestHotMonth(LocalDateTime before) {
+        Timestamp end = jdbcTemplate.queryForObject("select min(date_end) from bookings_hot where date_end < ?",
+                Timestamp.class, Timestamp.valueOf(before));
+        return Optional.ofNullable(end).map(timestamp -> YearMonth.from(timestamp.toLocalDateTime()));
+    }
+
+    // a month whose table was created but not attached, left by an interrupted run
+    public Optional<YearMonth> findDetachedMonth() {
+        return jdbcTemplate.queryForList("select relname from pg_class where relkind = 'r' and not relispartition " +
+                        "and relname ~ ? order by relname limit 1", String.class, "^" + PARTITION_NAME.pattern() + "$")
+                .stream()
+                .findFirst()
+                .map(name -> YearMonth.parse(name, PARTITION_FORMAT));
+    }
+
+    // the table gets the indexes of bookings while empty, so attach only matches them; the range check lets attach
+    // skip the scan of the table and keeps other rows out of it. Foreign keys are cloned and checked by attach:
+    // one created here would have its triggers on users and items dropped by attach, which locks out reads of them
+    public void createPartition(YearMonth month) {
+        String partition = partition(month);
+        execute("create table %I (like bookings including defaults including indexes)", partition);
+        execute("alter table %I add constraint %I check (date_end >= %L and date_end < %L)",
+                partition, partition + "_range", start(month), start(month.plusMonths(1)));
+    }
+
+    // the order keeps the batch on the date_end index; unordered, the planner prefers a seq scan of bookings_hot,
+    // which reads further with every batch as the month drains
+    public int moveBatch(YearMonth month, int size) {
+        return jdbcTemplate.update(format("with moved as (delete from bookings_hot where ctid = any(array(" +
+                        "select ctid from bookings_hot where date_end >= ? and date_end < ? order by date_end " +
+                        "limit ?)) returning *) insert into %I select * from moved", partition(month)),
+                start(month), start(month.plusMonths(1)), size);
+    }
+
+    // new rows are checked at once, the existing ones by validateHotBound
+    public void boundHot(YearMonth month) {
+        execute("alter table bookings_hot drop constraint if exists %I", HOT_BOUND);
+        execute("alter table bookings_hot add constraint %I check (date_end >= %L) not valid",
+                HOT_BOUND, start(month.plusMonths(1)));
+    }
+
+    // scans bookings_hot without blocking reads and writes
+    public void validateHotBound() {
+        execute("alter table bookings_hot validate constraint %I", HOT_BOUND);
+    }
+
+    public void attach(YearMonth month) {
+        String partition = partition(month);
+        execute("alter table bookings attach partition %I for values from (%L) to (%L)",
+                partition, start(month), start(month.plusMonths(1)));
+        execute("alter table %I drop constraint %I", partition, partition + "_range");
+        execute("alter table bookings_hot drop constraint %I", HOT_BOUND);
+    }
+
+    private static String partition(YearMonth month) {
+        String partition = month.atDay(1).format(PARTITION_FORMAT);
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Некорректное имя архивной секции: " + partition);
+        }
+        return partition;
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+
+    private void execute(String template, Object... arguments) {
+        jdbcTemplate.execute(format(template, arguments));
+    }
+
+    // identifiers (%I) and literals (%L) are passed as bind parameters and quoted by the database
+    private String format(String template, Object... arguments) {
+        Object[] parameters = new Object[arguments.length + 1];
+        parameters[0] = template;
+        for (int i = 0; i < arguments.length; i++) {
+            parameters[i + 1] = arguments[i].toString();
+        }
+        return jdbcTemplate.queryForObject("select format(?" + ", ?".repeat(arguments.length) + ")",
+                String.class, parameters);
+    }
+}
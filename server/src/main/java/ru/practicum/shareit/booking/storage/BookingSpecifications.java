@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.StatusEnum;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> byBooker(Integer bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byOwner(Integer ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        return (root, query, builder) -> {
+            switch (state) {
+                case CURRENT:
+                    return builder.and(builder.lessThan(root.get("start"), now),
+                            builder.greaterThan(root.get("end"), now));
+                case PAST:
+                    return builder.lessThan(root.get("end"), now);
+                case FUTURE:
+                    return builder.and(builder.greaterThan(root.get("start"), now),
+                            builder.greaterThan(root.get("end"), now));
+                case WAITING:
+                    return builder.equal(root.get("status"), StatusEnum.WAITING);
+                case REJECTED:
+                    return builder.equal(root.get("status"), StatusEnum.REJECTED);
+                default:
+                    return null;
+            }
+        };
+    }
+
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, builder) -> builder.or(builder.lessThan(root.get("start"), cursor.getStart()),
+                builder.and(builder.equal(root.get("start"), cursor.getStart()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
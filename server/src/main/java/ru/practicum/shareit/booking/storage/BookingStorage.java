@@ -1,42 +1,122 @@
 package ru.practicum.shareit.booking.storage;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.StatusEnum;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingStorage extends JpaRepository<Booking, Integer> {
+public interface BookingStorage extends JpaRepository<Booking, Integer>, BookingStorageCustom {
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Integer bookerId, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Integer id);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDesc(Integer bookerId, LocalDateTime start,
-                                                                               LocalDateTime end, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.booker.id = :bookerId " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdOrderByStartDescIdDesc(@Param("bookerId") Integer bookerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Integer bookerId, LocalDateTime end, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.booker.id = :bookerId " +
+            "and b.start < :start and b.end > :end order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(
+            @Param("bookerId") Integer bookerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+        Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Integer bookerId, LocalDateTime start, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.booker.id = :bookerId " +
+            "and b.end < :end order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(@Param("bookerId") Integer bookerId,
+            @Param("end") LocalDateTime end, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Integer bookerId, StatusEnum status, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.booker.id = :bookerId " +
+            "and b.start > :start and b.end > :end order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(
+            @Param("bookerId") Integer bookerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+        Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Integer ownerId, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.booker.id = :bookerId " +
+            "and b.status = :status order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStatusOrderByStartDescIdDesc(@Param("bookerId") Integer bookerId,
+            @Param("status") StatusEnum status, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDesc(Integer ownerId, LocalDateTime start,
-                                                                                  LocalDateTime end, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdOrderByStartDescIdDesc(@Param("ownerId") Integer ownerId, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Integer ownerId, LocalDateTime end, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "and b.start < :start and b.end > :end order by b.start desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(
+            @Param("ownerId") Integer ownerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+        Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Integer ownerId, LocalDateTime start, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "and b.end < :end order by b.start desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(@Param("ownerId") Integer ownerId,
+            @Param("end") LocalDateTime end, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Integer ownerId, StatusEnum status, Pageable pageable);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "and b.start > :start and b.end > :end order by b.start desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(
+            @Param("ownerId") Integer ownerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+        Pageable pageable);
 
-    // last bookings
-    Optional<Booking> findFirstByItemIdAndStartIsBeforeOrderByStartDesc(Integer itemId, LocalDateTime time);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "and b.status = :status order by b.start desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(@Param("ownerId") Integer ownerId,
+            @Param("status") StatusEnum status, Pageable pageable);
 
-    // next bookings
-    Optional<Booking> findFirstByItemIdAndStartIsAfterAndStatusOrderByStartAsc(Integer itemId, LocalDateTime time,
-                                                                               StatusEnum status);
+    @Query("select b from Booking b join fetch b.item where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :id and b.status = :expected")
+    int updateStatus(@Param("id") Integer id, @Param("expected") StatusEnum expected,
+                     @Param("status") StatusEnum status);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(@Param("itemId") Integer itemId,
+                                                              @Param("statuses") Collection<StatusEnum> statuses,
+                                                              @Param("end") LocalDateTime end,
+                                                              @Param("start") LocalDateTime start);
+
+    @Query("select b from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start " +
+            "order by b.start")
+    List<Booking> findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+            @Param("itemId") Integer itemId, @Param("statuses") Collection<StatusEnum> statuses,
+            @Param("end") LocalDateTime end, @Param("start") LocalDateTime start);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.booker.id = :bookerId and b.item.id = :itemId and b.status = :status and b.start < :time")
+    boolean existsStartedByBookerIdAndItemId(@Param("bookerId") Integer bookerId, @Param("itemId") Integer itemId,
+                                             @Param("status") StatusEnum status, @Param("time") LocalDateTime time);
+
+    // start of the item's next booking in any status, when its last booking changes
+    @Query("select min(b.start) from Booking b where b.item.id = :itemId and b.start > :time and b.end > :time")
+    LocalDateTime findNextStartByItemId(@Param("itemId") Integer itemId, @Param("time") LocalDateTime time);
+
+    // last bookings for a page of items
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.start = (select max(l.start) from Booking l " +
+            "where l.item.id = b.item.id and l.start < :time)")
+    List<Booking> findAllLastByItemIdIn(@Param("itemIds") Collection<Integer> itemIds,
+                                        @Param("time") LocalDateTime time);
+
+    // next bookings for a page of items
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.status = :status and b.end > :time " +
+            "and b.start = (select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.start > :time and n.end > :time and n.status = :status)")
+    List<Booking> findAllNextByItemIdIn(@Param("itemIds") Collection<Integer> itemIds,
+                                        @Param("time") LocalDateTime time,
+                                        @Param("status") StatusEnum status);
 }
\ No newline at end of file
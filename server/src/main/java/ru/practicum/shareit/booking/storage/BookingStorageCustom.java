@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingStorageCustom {
+
+    // ordered by start and id descending
+    List<Booking> findFirst(Specification<Booking> specification, int limit);
+
+    // ordered by start and id descending, read through a cursor and detached every fetchSize rows
+    Stream<Booking> streamAll(Specification<Booking> specification, int fetchSize);
+}
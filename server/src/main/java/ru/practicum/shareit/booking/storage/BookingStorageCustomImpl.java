@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class BookingStorageCustomImpl implements BookingStorageCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findFirst(Specification<Booking> specification, int limit) {
+        return entityManager.createQuery(orderedQuery(specification))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Booking> streamAll(Specification<Booking> specification, int fetchSize) {
+        AtomicInteger streamed = new AtomicInteger();
+        return entityManager.createQuery(orderedQuery(specification))
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(booking -> {
+                    if (streamed.incrementAndGet() % fetchSize == 0) {
+                        entityManager.clear();
+                    }
+                });
+    }
+
+    private CriteriaQuery<Booking> orderedQuery(Specification<Booking> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        root.fetch("item");
+        root.fetch("booker");
+        return query.where(specification.toPredicate(root, query, builder))
+                .orderBy(builder.desc(root.get("start")), builder.desc(root.get("id")));
+    }
+}
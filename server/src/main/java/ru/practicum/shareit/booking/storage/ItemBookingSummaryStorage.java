@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryStorage extends JpaRepository<ItemBookingSummary, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ItemBookingSummary> findLockedByItemId(Integer itemId);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.rolloverAt <= :time order by s.itemId")
+    List<Integer> findDueItemIds(@Param("time") LocalDateTime time, Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.rolloverAt = :time where s.lastBookerId = :bookerId")
+    int markDueByLastBookerId(@Param("bookerId") Integer bookerId, @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.rolloverAt = :time where s.nextBookerId = :bookerId")
+    int markDueByNextBookerId(@Param("bookerId") Integer bookerId, @Param("time") LocalDateTime time);
+
+    // two updates instead of an OR, so each one reads its own index
+    default int markDueByBookerId(Integer bookerId, LocalDateTime time) {
+        return markDueByLastBookerId(bookerId, time) + markDueByNextBookerId(bookerId, time);
+    }
+}
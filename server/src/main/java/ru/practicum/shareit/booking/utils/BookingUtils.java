@@ -6,11 +6,14 @@ import ru.practicum.shareit.booking.model.StatusEnum;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exceptions.DuplicatedException;
 import ru.practicum.shareit.exceptions.NotFoundElementException;
 import ru.practicum.shareit.exceptions.ValidationElementException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.time.LocalDateTime;
@@ -22,11 +25,13 @@ public class BookingUtils {
 
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final UserExistenceCache userExistenceCache;
 
     public Booking validation(Integer userId, BookingDto bookingDto) {
         User user = userStorage.findById(userId)
                 .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
-        Item item = itemStorage.findById(bookingDto.getItemId())
+        Item item = itemStorage.findLockedById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundElementException("Предмет не найден"));
         if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new NotFoundElementException("Владелец не может забронировать вещь");
@@ -40,6 +45,7 @@ public class BookingUtils {
         booking.setItem(item);
         booking.setBooker(user);
         validationDate(booking);
+        isFree(item.getId(), booking.getStart(), booking.getEnd());
         return booking;
     }
 
@@ -63,28 +69,35 @@ public class BookingUtils {
         }
     }
 
+    public void isFree(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingStorage.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, StatusEnum.BLOCKING, end,
+                start)) {
+            throw new DuplicatedException("Вещь уже забронирована на эти даты");
+        }
+    }
+
     public void isOwnerOrBooker(Integer userId, Booking booking) {
-        if (!Objects.equals(itemStorage.getById(booking.getItem().getId()).getOwner().getId(), userId)
+        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)
                 && !Objects.equals(booking.getBooker().getId(), userId)) {
             throw new NotFoundElementException("Пользователь не является владельцем вещи или букером");
         }
     }
 
     public void isOwner(Integer userId, Booking booking) {
-        if (!Objects.equals(itemStorage.getById(booking.getItem().getId()).getOwner().getId(), userId)) {
+        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new NotFoundElementException("Пользователь не является владельцем вещи");
         }
     }
 
     public void isUser(Integer userId) {
-        User user = userStorage.findById(userId)
-                        .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundElementException("Пользователь не найден");
+        }
     }
 
-    public void isApprove(Booking booking, boolean approved) {
-        if ((approved && booking.getStatus().equals(StatusEnum.APPROVED))
-                || (approved && booking.getStatus().equals(StatusEnum.REJECTED))) {
-            throw new ValidationElementException("У букинга уже выставлен данный статус");
+    public void isWaiting(Booking booking) {
+        if (!StatusEnum.WAITING.equals(booking.getStatus())) {
+            throw new ValidationElementException("У букинга уже выставлен статус");
         }
     }
 }
\ No newline at end of file
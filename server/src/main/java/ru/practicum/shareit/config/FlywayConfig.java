@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(MeterRegistry meterRegistry) {
+        return flyway -> {
+            long started = System.nanoTime();
+            String outcome;
+            if (flyway.info().pending().length == 0) {
+                flyway.validate();
+                outcome = "current";
+            } else {
+                flyway.migrate();
+                outcome = "migrated";
+            }
+            long elapsed = System.nanoTime() - started;
+            Timer.builder("shareit.schema.migration")
+                    .description("Время проверки и применения миграций схемы при старте")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Миграции схемы: {} за {} мс", outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+
+    public StatementCountFilter(MeterRegistry meterRegistry,
+                                @Value("${shareit.statements.threshold:20}") int threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            String uri = Optional.ofNullable(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                    .map(Object::toString)
+                    .orElse("UNKNOWN");
+            DistributionSummary.builder("shareit.http.statements")
+                    .description("SQL-запросы, выполненные за один HTTP-запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > threshold) {
+                Counter.builder("shareit.http.statements.exceeded")
+                        .description("HTTP-запросы, превысившие порог SQL-запросов (возможная проблема N+1)")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Возможная проблема N+1: {} {} выполнил {} SQL-запросов при пороге {}",
+                        request.getMethod(), request.getRequestURI(), statements, threshold);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// counts SQL statements prepared by Hibernate on the current thread while counting is started
+public class StatementCounter implements StatementInspector {
+
+    // nested counters, e.g. count() around a request that the filter counts too, all see each statement
+    private static final ThreadLocal<Deque<AtomicInteger>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Deque<AtomicInteger> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.forEach(AtomicInteger::incrementAndGet);
+        }
+        return sql;
+    }
+
+    public static void start() {
+        Deque<AtomicInteger> statements = STATEMENTS.get();
+        if (statements == null) {
+            statements = new ArrayDeque<>();
+            STATEMENTS.set(statements);
+        }
+        statements.push(new AtomicInteger());
+    }
+
+    public static int stop() {
+        Deque<AtomicInteger> statements = STATEMENTS.get();
+        if (statements == null) {
+            return 0;
+        }
+        AtomicInteger counted = statements.pop();
+        if (statements.isEmpty()) {
+            STATEMENTS.remove();
+        }
+        return counted.get();
+    }
+
+    // statements executed by the action, e.g. to assert a query budget in tests
+    public static int count(Runnable action) {
+        start();
+        int statements;
+        try {
+            action.run();
+        } finally {
+            statements = stop();
+        }
+        return statements;
+    }
+}
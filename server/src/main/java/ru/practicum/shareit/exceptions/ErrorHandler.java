@@ -1,5 +1,6 @@
 package ru.practicum.shareit.exceptions;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -13,4 +14,10 @@ public class ErrorHandler {
     public ErrorResponse errorResponse(UnknownStatusException ex) {
         return new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.toString(), ex.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse errorResponse(OptimisticLockingFailureException ex) {
+        return new ErrorResponse(HttpStatus.CONFLICT.toString(), "Данные изменены параллельно, повторите запрос");
+    }
 }
\ No newline at end of file
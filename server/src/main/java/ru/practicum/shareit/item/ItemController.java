@@ -1,14 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +32,19 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                           InputStream content) {
+        return itemService.importItems(userId, content);
+    }
+
+    @GetMapping("/export")
+    public void exportAllByOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                 HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        itemService.exportAllByOwner(userId, response.getOutputStream());
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                @PathVariable("itemId") Integer itemId) {
@@ -56,6 +77,15 @@ public class ItemController {
         return itemService.search(text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeWindowDto> getAvailability(@PathVariable("itemId") Integer itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                     @PathVariable(value = "itemId") Integer itemId,
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.item.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentStorage extends JpaRepository<Comment, Integer> {
 
-    List<Comment> findAllByItemIdOrderByDate(Integer itemId);
-}
\ No newline at end of file
+    @Query("select c from Comment c join fetch c.item join fetch c.author where c.item.id = :itemId order by c.date")
+    List<Comment> findAllByItemIdOrderByDate(@Param("itemId") Integer itemId);
+
+    @Query("select c from Comment c join fetch c.item join fetch c.author where c.item.id in :itemIds " +
+            "order by c.date")
+    List<Comment> findAllByItemIdInOrderByDate(@Param("itemIds") Collection<Integer> itemIds);
+}
@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.comment.CommentDto;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @Data
@@ -14,8 +15,10 @@ public class ItemDto {
 
     private Integer id;
     @NotBlank
+    @Size(max = 60)
     private String name;
     @NotBlank
+    @Size(max = 200)
     private String description;
     @NotNull
     private Boolean available;
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemImportErrorDto {
+
+    private int row;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemShort {
+
+    Integer getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Integer getOwnerId();
+
+    Integer getRequestId();
+}
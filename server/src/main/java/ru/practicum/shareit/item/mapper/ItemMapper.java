@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemShort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -18,6 +19,17 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDto toItemDTO(ItemShort item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .owner(item.getOwnerId())
+                .build();
+    }
+
     public static Item toItemFromDTO(ItemDto itemDto, User user) {
         return Item.builder()
                 .id(itemDto.getId())
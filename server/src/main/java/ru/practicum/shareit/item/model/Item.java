@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -15,10 +17,12 @@ import javax.persistence.*;
 @Getter
 @Setter
 @Table(name = "items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Integer id;
     @Column(name = "name", nullable = false)
     private String name;
@@ -32,7 +36,7 @@ public class Item {
     private User owner;
 
     @JoinColumn(name = "request_id")
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ItemRequest request;
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemShort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class IndexItemSearch implements ItemSearch {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final int STALE_RETRIES = 3;
+
+    private final ItemStorage itemStorage;
+    private final ItemIndex index;
+    private volatile boolean ready;
+
+    public IndexItemSearch(ItemStorage itemStorage,
+                           @Value("${shareit.search.index.max-size:256MB}") DataSize maxSize) {
+        this.itemStorage = itemStorage;
+        this.index = new ItemIndex(maxSize.toBytes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        int lastId = 0;
+        List<ItemShort> batch;
+        do {
+            batch = itemStorage.findAllShortByIdAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (ItemShort item : batch) {
+                if (Boolean.TRUE.equals(item.getAvailable())
+                        && !index.put(item.getId(), item.getOwnerId(), item.getName(), item.getDescription(), false)) {
+                    log.warn("Индекс поиска превысил лимит памяти, поиск переключен на базу данных");
+                    return;
+                }
+                lastId = item.getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        ready = true;
+        log.info("Индекс поиска построен за {} мс", System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        if (!ready || index.isOverflowed()) {
+            return itemStorage.search(text, PageRequest.of(from / size, size));
+        }
+        for (int attempt = 0; attempt < STALE_RETRIES; attempt++) {
+            List<Integer> ids = index.search(text, from / size * size, size);
+            Map<Integer, Item> items = itemStorage.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<Integer> stale = ids.stream()
+                    .filter(id -> !items.containsKey(id) || !Boolean.TRUE.equals(items.get(id).getAvailable()))
+                    .collect(Collectors.toList());
+            if (stale.isEmpty()) {
+                return ids.stream()
+                        .map(items::get)
+                        .collect(Collectors.toList());
+            }
+            stale.forEach(index::remove);
+        }
+        return itemStorage.search(text, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public void index(Item item) {
+        int id = item.getId();
+        Integer ownerId = Optional.ofNullable(item.getOwner()).map(User::getId).orElse(null);
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        String name = item.getName();
+        String description = item.getDescription();
+        afterCommit(() -> {
+            if (available) {
+                index.put(id, ownerId, name, description, true);
+            } else {
+                index.remove(id);
+            }
+        });
+    }
+
+    @Override
+    public void removeAllByOwnerId(Integer ownerId) {
+        afterCommit(() -> index.removeAllByOwnerId(ownerId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
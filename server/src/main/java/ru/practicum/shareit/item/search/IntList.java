@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        int position = Arrays.binarySearch(values, 0, size, value);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = value;
+        size++;
+    }
+
+    void remove(int value) {
+        int position = Arrays.binarySearch(values, 0, size, value);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,254 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class ItemIndex {
+
+    // grams of every length up to GRAM are indexed, so queries of one or two characters read a single list
+    private static final int GRAM = 3;
+    // rough per-entry costs used for the memory bound
+    private static final int DOCUMENT_BYTES = 96;
+    private static final int POSTING_BYTES = 4;
+    private static final int LIST_BYTES = 96;
+
+    private final long maxBytes;
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final Map<String, IntList> namePostings = new HashMap<>();
+    private final Map<String, IntList> descriptionPostings = new HashMap<>();
+    private IntList ids = new IntList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long bytes;
+    private boolean overflowed;
+
+    ItemIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    boolean put(int id, Integer ownerId, String name, String description, boolean replace) {
+        lock.writeLock().lock();
+        try {
+            if (overflowed || (!replace && documents.containsKey(id))) {
+                return !overflowed;
+            }
+            removeDocument(id);
+            Document document = new Document(ownerId, normalize(name), normalize(description));
+            long added = document.bytes + LIST_BYTES * (newLists(namePostings, document.nameGrams)
+                    + newLists(descriptionPostings, document.descriptionGrams));
+            if (bytes + added > maxBytes) {
+                overflowed = true;
+                documents.clear();
+                namePostings.clear();
+                descriptionPostings.clear();
+                ids = new IntList();
+                bytes = 0;
+                return false;
+            }
+            documents.put(id, document);
+            ids.add(id);
+            addPostings(namePostings, document.nameGrams, id);
+            addPostings(descriptionPostings, document.descriptionGrams, id);
+            bytes += document.bytes;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAllByOwnerId(Integer ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> owned = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (Objects.equals(document.ownerId, ownerId)) {
+                    owned.add(id);
+                }
+            });
+            owned.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean isOverflowed() {
+        lock.readLock().lock();
+        try {
+            return overflowed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // name matches first, then description matches, each by id, like ItemStorage.search
+    List<Integer> search(String text, int from, int size) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            List<Integer> page = new ArrayList<>();
+            int skipped = 0;
+            IntList[] byName = candidates(namePostings, query);
+            for (int i = 0; i < byName[0].size() && page.size() < size; i++) {
+                int id = byName[0].get(i);
+                if (containsAll(byName, id) && nameMatches(id, query) && skipped++ >= from) {
+                    page.add(id);
+                }
+            }
+            IntList[] byDescription = candidates(descriptionPostings, query);
+            for (int i = 0; i < byDescription[0].size() && page.size() < size; i++) {
+                int id = byDescription[0].get(i);
+                if (containsAll(byDescription, id) && !nameMatches(id, query)
+                        && documents.get(id).description.contains(query) && skipped++ >= from) {
+                    page.add(id);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean nameMatches(int id, String query) {
+        return documents.get(id).name.contains(query);
+    }
+
+    // posting lists to intersect, smallest first; a query of up to GRAM characters reads a single list
+    private IntList[] candidates(Map<String, IntList> postings, String query) {
+        if (query.isEmpty()) {
+            return new IntList[]{ids};
+        }
+        if (query.length() <= GRAM) {
+            return new IntList[]{postings.getOrDefault(query, new IntList())};
+        }
+        Set<String> grams = grams(query, GRAM);
+        IntList[] lists = new IntList[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                return new IntList[]{new IntList()};
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(IntList::size));
+        return lists;
+    }
+
+    private boolean containsAll(IntList[] lists, int id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long newLists(Map<String, IntList> postings, Set<String> grams) {
+        return grams.stream()
+                .filter(gram -> !postings.containsKey(gram))
+                .count();
+    }
+
+    private void addPostings(Map<String, IntList> postings, Set<String> grams, int id) {
+        for (String gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                list = new IntList();
+                postings.put(gram, list);
+                bytes += LIST_BYTES;
+            }
+            list.add(id);
+        }
+    }
+
+    private void removePostings(Map<String, IntList> postings, Set<String> grams, int id) {
+        for (String gram : grams) {
+            IntList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                    bytes -= LIST_BYTES;
+                }
+            }
+        }
+    }
+
+    private void removeDocument(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        ids.remove(id);
+        removePostings(namePostings, document.nameGrams, id);
+        removePostings(descriptionPostings, document.descriptionGrams, id);
+        bytes -= document.bytes;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            grams.addAll(grams(text, length));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Document {
+
+        private final Integer ownerId;
+        private final String name;
+        private final String description;
+        private final Set<String> nameGrams;
+        private final Set<String> descriptionGrams;
+        private final long bytes;
+
+        private Document(Integer ownerId, String name, String description) {
+            this.ownerId = ownerId;
+            this.name = name;
+            this.description = description;
+            this.nameGrams = grams(name);
+            this.descriptionGrams = grams(description);
+            this.bytes = DOCUMENT_BYTES + 2L * (name.length() + description.length())
+                    + (long) POSTING_BYTES * (nameGrams.size() + descriptionGrams.size());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearch {
+
+    List<Item> search(String text, Integer from, Integer size);
+
+    void index(Item item);
+
+    void removeAllByOwnerId(Integer ownerId);
+}
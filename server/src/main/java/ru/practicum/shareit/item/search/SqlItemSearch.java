@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "sql", matchIfMissing = true)
+public class SqlItemSearch implements ItemSearch {
+
+    private final ItemStorage itemStorage;
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        return itemStorage.search(text, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void removeAllByOwnerId(Integer ownerId) {
+    }
+}
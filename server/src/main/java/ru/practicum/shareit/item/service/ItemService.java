@@ -1,14 +1,24 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Integer userId);
 
+    ItemImportResultDto importItems(Integer userId, InputStream content);
+
+    void exportAllByOwner(Integer userId, OutputStream out) throws IOException;
+
     ItemDto get(Integer itemId);
 
     ItemDto update(ItemDto itemDto, Integer userId);
@@ -20,4 +30,6 @@ public interface ItemService {
     List<ItemDto> search(String text, Integer from, Integer size);
 
     CommentDto createComment(Integer userId, Integer itemId, CommentDto commentDto);
+
+    List<FreeWindowDto> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
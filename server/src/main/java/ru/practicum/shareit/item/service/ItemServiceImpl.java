@@ -1,42 +1,74 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.NotFoundElementException;
+import ru.practicum.shareit.exceptions.ValidationElementException;
 import ru.practicum.shareit.item.utils.ItemUtils;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentStorage;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemShort;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.storage.ItemStorage;
-import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int IMPORT_MAX_ERRORS = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
     private final CommentStorage commentStorage;
     private final ItemUtils itemUtils;
     private final BookingService bookingService;
     private final ItemRequestStorage itemRequestStorage;
+    private final ItemSearch itemSearch;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -44,17 +76,130 @@ public class ItemServiceImpl implements ItemService {
         itemUtils.isUser(userId);
         itemUtils.checkItemValid(itemDto);
         itemDto.setOwner(userId);
-        User user = userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
+        User user = userStorage.getReferenceById(userId);
         Item item = ItemMapper.toItemFromDTO(itemDto, user);
         if (itemDto.getRequestId() != null) {
-            ItemRequest itemRequest = itemRequestStorage.findById(itemDto.getRequestId()).orElseThrow();
-            item.setRequest(itemRequest);
-            itemStorage.save(item);
-            return get(item.getId());
+            item.setRequest(itemRequestStorage.findById(itemDto.getRequestId()).orElseThrow());
         }
         itemStorage.save(item);
-        return get(item.getId());
+        itemSearch.index(item);
+        return ItemMapper.toItemDTO(item);
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Integer userId, InputStream content) {
+        itemUtils.isUser(userId);
+        long started = System.nanoTime();
+        ItemImportResultDto result = new ItemImportResultDto();
+        Map<Integer, ItemDto> chunk = new LinkedHashMap<>();
+        int row = 0;
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(content)) {
+            while (rows.hasNextValue()) {
+                row++;
+                try {
+                    chunk.put(row, rows.nextValue());
+                } catch (JsonMappingException ex) {
+                    result.setFailed(result.getFailed() + 1);
+                    addImportError(result, row, "Некорректная строка: " + ex.getOriginalMessage());
+                }
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            result.setFailed(result.getFailed() + 1);
+            addImportError(result, row, "Некорректный JSON: " + ex.getMessage());
+        }
+        importChunk(userId, chunk, result);
+        result.getErrors().sort(Comparator.comparingInt(ItemImportErrorDto::getRow));
+        long elapsed = Math.max(System.nanoTime() - started, 1);
+        result.setItemsPerSecond(result.getImported() * 1_000_000_000L / elapsed);
+        log.info("Импорт предметов пользователя {}: загружено {}, отклонено {}, {} предметов/с", userId,
+                result.getImported(), result.getFailed(), result.getItemsPerSecond());
+        return result;
+    }
+
+    private void importChunk(Integer userId, Map<Integer, ItemDto> chunk, ItemImportResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Integer> requestIds = chunk.values().stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                Set<Integer> existingRequestIds = requestIds.isEmpty()
+                        ? Collections.emptySet() : itemRequestStorage.findAllIdsByIdIn(requestIds);
+                User owner = userStorage.getReferenceById(userId);
+                List<Item> items = new ArrayList<>();
+                chunk.forEach((row, itemDto) -> {
+                    try {
+                        itemUtils.checkItemImportValid(itemDto, existingRequestIds);
+                    } catch (ValidationElementException | NotFoundElementException ex) {
+                        errors.add(new ItemImportErrorDto(row, ex.getMessage()));
+                        return;
+                    }
+                    itemDto.setId(null);
+                    Item item = ItemMapper.toItemFromDTO(itemDto, owner);
+                    if (itemDto.getRequestId() != null) {
+                        item.setRequest(itemRequestStorage.getReferenceById(itemDto.getRequestId()));
+                    }
+                    items.add(item);
+                });
+                itemStorage.saveAll(items).forEach(itemSearch::index);
+                return items.size();
+            });
+            result.setImported(result.getImported() + imported);
+            result.setFailed(result.getFailed() + errors.size());
+            errors.forEach(error -> addImportError(result, error.getRow(), error.getMessage()));
+        } catch (DataAccessException ex) {
+            int firstRow = chunk.keySet().iterator().next();
+            int lastRow = Collections.max(chunk.keySet());
+            log.warn("Не удалось сохранить строки импорта {}-{}", firstRow, lastRow, ex);
+            result.setFailed(result.getFailed() + chunk.size());
+            addImportError(result, firstRow, "Не удалось сохранить строки " + firstRow + "-" + lastRow);
+        }
+    }
+
+    private void addImportError(ItemImportResultDto result, int row, String message) {
+        if (result.getErrors().size() < IMPORT_MAX_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(row, message));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllByOwner(Integer userId, OutputStream out) throws IOException {
+        itemUtils.isUser(userId);
+        try (Stream<ItemShort> items = itemStorage.streamAllShortByOwnerId(userId)) {
+            Iterator<ItemShort> iterator = items.iterator();
+            List<ItemDto> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(ItemMapper.toItemDTO(iterator.next()));
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    exportChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private void exportChunk(List<ItemDto> chunk, OutputStream out) throws IOException {
+        List<Integer> itemIds = chunk.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Integer, ItemBookingSummary> bookings = bookingService.getItemBookings(itemIds);
+        for (ItemDto itemDto : chunk) {
+            setBookings(itemDto, bookings.get(itemDto.getId()));
+            out.write(objectMapper.writeValueAsBytes(itemDto));
+            out.write('\n');
+        }
+        entityManager.clear();
     }
 
     @Override
@@ -67,8 +212,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItem(Integer itemId, Integer userId) {
-        User user = userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
+        itemUtils.isUser(userId);
         Item item = itemStorage.findById(itemId)
                 .orElseThrow(() -> new NotFoundElementException("Предмет не найден"));
         ItemDto itemDto = ItemMapper.toItemDTO(item);
@@ -82,8 +226,8 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto update(ItemDto itemDto, Integer userId) {
-        User user = userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
+        itemUtils.isUser(userId);
+        User user = userStorage.getReferenceById(userId);
         Item oldItem = itemStorage.findById(itemDto.getId())
                 .orElseThrow(() -> new NotFoundElementException("Предмет не найден"));
         itemUtils.isUserOwner(userId, itemDto.getId());
@@ -101,31 +245,43 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getOwner() == null) {
             itemDto.setOwner(oldItem.getOwner().getId());
         }
-        Item item = ItemMapper.toItemFromDTO(itemDto, user);
-        return ItemMapper.toItemDTO(itemStorage.save(item));
+        Item item = itemStorage.save(ItemMapper.toItemFromDTO(itemDto, user));
+        itemSearch.index(item);
+        return ItemMapper.toItemDTO(item);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllItemsByUserId(Integer userId, Integer from, Integer size) {
         List<Item> items = itemStorage.findAllByOwnerId(userId, PageRequest.of(from / size, size));
-        return items.stream()
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<CommentDto>> comments = commentStorage.findAllByItemIdInOrderByDate(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        Map<Integer, ItemBookingSummary> bookings = bookingService.getItemBookings(itemIds);
+        List<ItemDto> itemDtos = items.stream()
                 .map(ItemMapper::toItemDTO)
-                .map(this::updateComments)
-                .map(this::updateBookings)
                 .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
+        itemDtos.forEach(itemDto -> {
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), Collections.emptyList()));
+            setBookings(itemDto, bookings.get(itemDto.getId()));
+        });
+        return itemDtos;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> search(String text, Integer from, Integer size) {
-        if (text == null || text.isEmpty()) {
+        if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        List<Item> items = itemStorage.findAllByDescriptionContainsIgnoreCase(text, PageRequest.of(from / size, size));
-        return items.stream()
-                .filter(Item::getAvailable)
+        return itemSearch.search(text, from, size).stream()
                 .map(ItemMapper::toItemDTO)
                 .collect(Collectors.toList());
     }
@@ -138,6 +294,16 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(commentStorage.save(comment));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeWindowDto> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        itemUtils.isItem(itemId);
+        if (!from.isBefore(to)) {
+            throw new ValidationElementException("Начало периода позже конца");
+        }
+        return bookingService.getFreeWindows(itemId, from, to);
+    }
+
     public ItemDto updateComments(ItemDto itemDto) {
         List<Comment> comments = commentStorage.findAllByItemIdOrderByDate(itemDto.getId());
         itemDto.setComments(comments.stream()
@@ -147,16 +313,23 @@ public class ItemServiceImpl implements ItemService {
     }
 
     public ItemDto updateBookings(ItemDto itemDto) {
-        Optional<Booking> lastBooking = Optional.ofNullable(bookingService.getLastBooking(itemDto.getId()));
-        Optional<Booking> nextBooking = Optional.ofNullable(bookingService.getNextBooking(itemDto.getId()));
-        lastBooking.ifPresent(booking -> itemDto.setLastBooking(ItemDto.ListBooking.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build()));
-        nextBooking.ifPresent(booking -> itemDto.setNextBooking(ItemDto.ListBooking.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build()));
+        return setBookings(itemDto, bookingService.getItemBookings(List.of(itemDto.getId())).get(itemDto.getId()));
+    }
+
+    private ItemDto setBookings(ItemDto itemDto, ItemBookingSummary bookings) {
+        if (bookings == null) {
+            return itemDto;
+        }
+        Optional.ofNullable(bookings.getLastBookingId()).ifPresent(id ->
+                itemDto.setLastBooking(ItemDto.ListBooking.builder()
+                        .id(id)
+                        .bookerId(bookings.getLastBookerId())
+                        .build()));
+        Optional.ofNullable(bookings.getNextBookingId()).ifPresent(id ->
+                itemDto.setNextBooking(ItemDto.ListBooking.builder()
+                        .id(id)
+                        .bookerId(bookings.getNextBookerId())
+                        .build()));
         return itemDto;
     }
 }
\ No newline at end of file
@@ -2,15 +2,49 @@ package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemShort;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemStorage extends JpaRepository<Item, Integer> {
 
-    List<Item> findAllByDescriptionContainsIgnoreCase(String text, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(Integer id);
 
-    List<Item> findAllByOwnerId(Integer ownerId, Pageable pageable);
+    // available items by name or description, name matches first
+    @Query("select i from Item i where i.available = true " +
+            "and (lower(i.name) like lower(concat('%', :#{escape(#text)}, '%')) escape :#{escapeCharacter()} " +
+            "or lower(i.description) like lower(concat('%', :#{escape(#text)}, '%')) escape :#{escapeCharacter()}) " +
+            "order by case when lower(i.name) like lower(concat('%', :#{escape(#text)}, '%')) " +
+            "escape :#{escapeCharacter()} then 0 else 1 end, i.id")
+    List<Item> search(@Param("text") String text, Pageable pageable);
 
-    List<Item> findAllByRequestId(Integer requestId);
+    @Query("select i from Item i where i.owner.id = :ownerId order by i.id")
+    List<Item> findAllByOwnerId(@Param("ownerId") Integer ownerId, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId, r.id as requestId from Item i join i.request r " +
+            "where r.id in :requestIds order by i.id")
+    List<ItemShort> findAllShortByRequestIdIn(@Param("requestIds") Collection<Integer> requestIds);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId, r.id as requestId from Item i left join i.request r " +
+            "where i.id > :afterId order by i.id")
+    List<ItemShort> findAllShortByIdAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId, r.id as requestId from Item i left join i.request r " +
+            "where i.owner.id = :ownerId order by i.id")
+    Stream<ItemShort> streamAllShortByOwnerId(@Param("ownerId") Integer ownerId);
 }
\ No newline at end of file
@@ -2,8 +2,6 @@ package ru.practicum.shareit.item.utils;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.model.StatusEnum;
-import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.NotFoundElementException;
 import ru.practicum.shareit.exceptions.ValidationElementException;
@@ -14,11 +12,15 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 @AllArgsConstructor
@@ -26,7 +28,9 @@ public class ItemUtils {
 
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
+    private final UserExistenceCache userExistenceCache;
     private final BookingService bookingService;
+    private final Validator validator;
 
     public Item validateItemForUpdate(Item item) {
         Item oldItem = itemStorage.findById(item.getId())
@@ -52,14 +56,32 @@ public class ItemUtils {
         }
     }
 
+    public void checkItemImportValid(ItemDto itemDto, Set<Integer> requestIds) {
+        if (itemDto == null) {
+            throw new ValidationElementException("Пустая строка");
+        }
+        // the same constraints as POST /items
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (!violations.isEmpty()) {
+            throw new ValidationElementException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (itemDto.getRequestId() != null && !requestIds.contains(itemDto.getRequestId())) {
+            throw new NotFoundElementException("Запрос не найден");
+        }
+    }
+
     public void isItem(Integer itemId) {
         itemStorage.findById(itemId)
                 .orElseThrow(() -> new NotFoundElementException("Предмет не найден"));
     }
 
     public void isUser(Integer userId) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new NotFoundElementException("Пользователь не найден"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundElementException("Пользователь не найден");
+        }
     }
 
     public void isUserOwner(Integer userId, Integer itemId) {
@@ -69,12 +91,7 @@ public class ItemUtils {
     }
 
     public void isBooking(Integer userId, Integer itemId) {
-        List<BookingDto> bookings = bookingService.findAllByBooker(userId, "ALL", 0, 10);
-        if (bookings.stream()
-                .filter(bookingDto -> Objects.equals(bookingDto.getItem().getId(), itemId))
-                .filter(bookingDto -> bookingDto.getStatus().equals(StatusEnum.APPROVED))
-                .filter(bookingDto -> bookingDto.getStart().isBefore(LocalDateTime.now()))
-                .count() == 0) {
+        if (!bookingService.hasStartedApprovedBooking(userId, itemId)) {
             throw new ValidationElementException("Список букингов пустой");
         }
     }
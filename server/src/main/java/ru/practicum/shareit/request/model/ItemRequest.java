@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -17,6 +19,7 @@ import java.time.LocalDateTime;
 @Setter
 @Builder
 @Table(name = "requests")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ItemRequest {
 
     @Id
@@ -28,7 +31,7 @@ public class ItemRequest {
     @NotNull
     @JoinColumn(name = "requester_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User requester;
     @Column(name = "created_date")
     @CreationTimestamp
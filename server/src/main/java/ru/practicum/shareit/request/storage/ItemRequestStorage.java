@@ -2,13 +2,24 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemRequestStorage extends JpaRepository<ItemRequest, Integer> {
 
     List<ItemRequest> findAllByRequesterIdIsNotOrderByCreatedDesc(Integer requesterId, Pageable page);
 
-    List<ItemRequest> findAllByRequesterId(Integer requesterId);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select r from ItemRequest r where r.requester.id = :requesterId")
+    List<ItemRequest> findAllByRequesterId(@Param("requesterId") Integer requesterId);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    Set<Integer> findAllIdsByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -1,15 +1,26 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
 import ru.practicum.shareit.exceptions.NotFoundElementException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 import ru.practicum.shareit.user.storage.UserStorage;
 import ru.practicum.shareit.user.utils.UserUtils;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +30,10 @@ public class UserServiceImpl implements UserService {
 
     private final UserStorage userStorage;
     private final UserUtils userUtils;
+    private final ItemSearch itemSearch;
+    private final UserExistenceCache userExistenceCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemBookingSummaryStorage itemBookingSummaryStorage;
 
     @Override
     @Transactional
@@ -48,6 +63,7 @@ public class UserServiceImpl implements UserService {
             userDTO.setName(oldUser.getName());
         }
         User user = userStorage.save(UserMapper.toUserFromDTO(userDTO));
+        userExistenceCache.evict(userId);
         return UserMapper.toUserDTO(user);
     }
 
@@ -62,6 +78,28 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Integer userId) {
+        itemBookingSummaryStorage.markDueByBookerId(userId, LocalDateTime.now());
         userStorage.deleteById(userId);
+        userExistenceCache.evict(userId);
+        itemSearch.removeAllByOwnerId(userId);
+        evictCascadedEntities();
+    }
+
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Item.class);
+            cache.evictEntityData(ItemRequest.class);
+            cache.evictQueryRegions();
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+@Component
+public class UserExistenceCache {
+
+    private final UserStorage userStorage;
+    private final Cache<Integer, Boolean> cache;
+
+    public UserExistenceCache(UserStorage userStorage,
+                              @Value("${shareit.users.cache.max-size:100000}") long maxSize,
+                              @Value("${shareit.users.cache.ttl:10m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.userStorage = userStorage;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.existence");
+    }
+
+    public boolean exists(Integer userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (cache.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userStorage.existsById(userId);
+        if (exists) {
+            cache.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void evict(Integer userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- summaries of a deleted user's bookings are marked due by booker
+CREATE INDEX IF NOT EXISTS item_bookings_last_booker_idx ON item_bookings (last_booker_id);
+CREATE INDEX IF NOT EXISTS item_bookings_next_booker_idx ON item_bookings (next_booker_id);
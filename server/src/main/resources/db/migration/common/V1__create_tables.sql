@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments cascade;
-DROP TABLE IF EXISTS bookings cascade;
-DROP TABLE IF EXISTS users cascade;
-DROP TABLE IF EXISTS items cascade;
-DROP TABLE IF EXISTS requests cascade;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id int generated by default as identity primary key,
@@ -46,4 +40,4 @@ CREATE TABLE IF NOT EXISTS comments
     author_id int REFERENCES users (id) ON DELETE CASCADE NOT NULL,
     text varchar (400),
     date TIMESTAMP
-);
\ No newline at end of file
+);
@@ -0,0 +1,16 @@
+-- bookings by booker, all states ordered by start; keyset on (date_start, id)
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, date_start DESC, id DESC);
+-- bookings by item: owner lists through items, last booking per item
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, date_start DESC, id DESC);
+
+-- items by owner, items answering requests
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+-- comments by item ordered by date, cascade from users
+CREATE INDEX IF NOT EXISTS comments_item_date_idx ON comments (item_id, date);
+CREATE INDEX IF NOT EXISTS comments_author_idx ON comments (author_id);
+
+-- requests by requester, other users' requests ordered by creation
+CREATE INDEX IF NOT EXISTS requests_requester_idx ON requests (requester_id, created_date DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created_date DESC);
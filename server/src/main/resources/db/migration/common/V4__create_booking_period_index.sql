@@ -0,0 +1,2 @@
+-- overlap checks and free windows scan bookings ending after the requested start
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, date_end);
@@ -0,0 +1,16 @@
+-- last/next booking per item, maintained by the server; rollover_at is the next booking start of the item
+CREATE TABLE IF NOT EXISTS item_bookings
+(
+    item_id int PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    last_booking_id int,
+    last_booker_id int,
+    next_booking_id int,
+    next_booker_id int,
+    rollover_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_bookings_rollover_idx ON item_bookings (rollover_at);
+
+-- items booked before the table existed are due immediately
+INSERT INTO item_bookings (item_id, rollover_at)
+SELECT DISTINCT item_id, TIMESTAMP '2000-01-01 00:00:00' FROM bookings;
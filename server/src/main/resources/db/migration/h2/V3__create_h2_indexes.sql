@@ -0,0 +1,3 @@
+-- H2 has no partial indexes, status lists use composite ones
+CREATE INDEX IF NOT EXISTS bookings_booker_status_idx ON bookings (booker_id, status, date_start DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_idx ON bookings (item_id, status, date_start DESC);
@@ -0,0 +1,5 @@
+-- ids are allocated in blocks of 50 (pooled-lo) so item inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM items);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
@@ -0,0 +1,2 @@
+-- comment eligibility: approved booking of the item by the user that has started
+CREATE INDEX IF NOT EXISTS bookings_booker_item_status_idx ON bookings (booker_id, item_id, status, date_start);
@@ -0,0 +1,13 @@
+-- status is stored as ordinal: 0 WAITING, 1 APPROVED, 2 REJECTED
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON bookings (booker_id, date_start DESC) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS bookings_booker_rejected_idx ON bookings (booker_id, date_start DESC) WHERE status = 2;
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_idx ON bookings (item_id, date_start DESC) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS bookings_item_rejected_idx ON bookings (item_id, date_start DESC) WHERE status = 2;
+-- next approved booking per item
+CREATE INDEX IF NOT EXISTS bookings_item_approved_idx ON bookings (item_id, date_start) WHERE status = 1;
+
+-- infix search over available items
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
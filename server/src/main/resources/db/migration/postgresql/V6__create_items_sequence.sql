@@ -0,0 +1,6 @@
+-- ids are allocated in blocks of 50 (pooled-lo) so item inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', COALESCE((SELECT max(id) FROM items), 0) + 1, false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
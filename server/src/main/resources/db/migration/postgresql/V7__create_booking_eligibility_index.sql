@@ -0,0 +1,2 @@
+-- comment eligibility: approved booking of the item by the user that has started
+CREATE INDEX IF NOT EXISTS bookings_booker_item_approved_idx ON bookings (booker_id, item_id, date_start) WHERE status = 1;
@@ -0,0 +1,43 @@
+-- bookings are range partitioned by date_end: CURRENT and FUTURE bookings end after now, so the planner
+-- skips every archived month; bookings_hot (the default partition) keeps recent and upcoming bookings
+-- until the archiver moves each ended month into its own partition
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+-- identity columns are not supported on partitioned tables
+CREATE SEQUENCE IF NOT EXISTS bookings_seq;
+SELECT setval('bookings_seq', COALESCE((SELECT max(id) FROM bookings_unpartitioned), 0) + 1, false);
+
+CREATE TABLE bookings
+(
+    id int DEFAULT nextval('bookings_seq') NOT NULL,
+    date_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    date_end TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id int REFERENCES items (id) ON DELETE CASCADE NOT NULL,
+    booker_id int REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    status int NOT NULL,
+    version int DEFAULT 0 NOT NULL
+) PARTITION BY RANGE (date_end);
+
+CREATE TABLE bookings_hot PARTITION OF bookings DEFAULT;
+
+INSERT INTO bookings (id, date_start, date_end, item_id, booker_id, status, version)
+SELECT id, date_start, date_end, item_id, booker_id, status, version FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+-- unique constraints on a partitioned table must contain the partition key; lookups by id use its prefix
+ALTER TABLE bookings ADD PRIMARY KEY (id, date_end);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, date_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, date_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, date_end);
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON bookings (booker_id, date_start DESC) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS bookings_booker_rejected_idx ON bookings (booker_id, date_start DESC) WHERE status = 2;
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_idx ON bookings (item_id, date_start DESC) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS bookings_item_rejected_idx ON bookings (item_id, date_start DESC) WHERE status = 2;
+CREATE INDEX IF NOT EXISTS bookings_item_approved_idx ON bookings (item_id, date_start) WHERE status = 1;
+CREATE INDEX IF NOT EXISTS bookings_booker_item_approved_idx ON bookings (booker_id, item_id, date_start)
+    WHERE status = 1;
+-- the archiver looks up the oldest ended month still in bookings_hot
+CREATE INDEX IF NOT EXISTS bookings_end_idx ON bookings (date_end);
@@ -0,0 +1,319 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.StatusEnum;
+import ru.practicum.shareit.booking.storage.BookingSpecifications;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
+import ru.practicum.shareit.config.RecordingStatementInspector;
+import ru.practicum.shareit.item.comment.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// runs EXPLAIN for every repository query on a seeded database and fails when a table is scanned;
+// H2 by default, PostgreSQL with mvn test -P plans-postgresql against the configured database
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.config.RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int REQUESTS = 200;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS = 5000;
+    private static final int COMMENTS = 500;
+    private static final String EMAIL_PATTERN = "plan%@mail.ru";
+    // H2 has no trigram indexes, PostgreSQL answers the search from the pg_trgm indexes of V3
+    private static final Map<String, String> H2_SCANS = Map.of("ItemStorage.search", "ITEMS");
+    private static final Pattern H2_ACCESS = Pattern.compile("/\\* PUBLIC\\.(\\w+)(\\.tableScan)? \\*/");
+    private static final Pattern POSTGRESQL_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemBookingSummaryStorage itemBookingSummaryStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private CommentStorage commentStorage;
+    @Autowired
+    private ItemRequestStorage itemRequestStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private Integer userId;
+    private Integer itemId;
+    private List<Integer> itemIds;
+    private List<Integer> requestIds;
+    private Integer bookingId;
+    private boolean postgresql;
+
+    @BeforeAll
+    void seed() {
+        postgresql = "PostgreSQL".equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName()));
+        clean();
+        Random random = new Random(42);
+        for (int i = 0; i < USERS; i++) {
+            jdbcTemplate.update("insert into users (name, email) values (?, ?)", "user" + i, "plan" + i + "@mail.ru");
+        }
+        List<Integer> userIds = jdbcTemplate.queryForList("select id from users where email like ? order by id",
+                Integer.class, EMAIL_PATTERN);
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Object[]{userIds.get(random.nextInt(USERS)), "request" + i,
+                    Timestamp.valueOf(now.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (requester_id, description, created_date) values (?, ?, ?)",
+                requests);
+        requestIds = jdbcTemplate.queryForList("select r.id from requests r join users u on u.id = r.requester_id "
+                + "where u.email like ? order by r.id", Integer.class, EMAIL_PATTERN);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "description" + i, random.nextInt(10) > 0,
+                    userIds.get(random.nextInt(USERS)), i % 5 == 0 ? requestIds.get(random.nextInt(REQUESTS)) : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, available, owner_id, request_id) "
+                + "values (?, ?, ?, ?, ?)", items);
+        itemIds = jdbcTemplate.queryForList("select i.id from items i join users u on u.id = i.owner_id "
+                + "where u.email like ? order by i.id", Integer.class, EMAIL_PATTERN);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(2000) - 1000);
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(48))),
+                    itemIds.get(random.nextInt(ITEMS)), userIds.get(random.nextInt(USERS)), random.nextInt(3)});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (date_start, date_end, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", bookings);
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Object[]{itemIds.get(random.nextInt(ITEMS)), userIds.get(random.nextInt(USERS)),
+                    "comment" + i, Timestamp.valueOf(now.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (item_id, author_id, text, date) values (?, ?, ?, ?)", comments);
+        List<Object[]> summaries = new ArrayList<>();
+        for (Integer id : itemIds) {
+            summaries.add(new Object[]{id, Timestamp.valueOf(now.plusHours(random.nextInt(1000) - 500))});
+        }
+        jdbcTemplate.batchUpdate("insert into item_bookings (item_id, rollover_at) values (?, ?)", summaries);
+        jdbcTemplate.execute("analyze");
+        userId = userIds.get(0);
+        itemId = itemIds.get(0);
+        bookingId = jdbcTemplate.queryForObject("select min(id) from bookings where booker_id = ?", Integer.class,
+                userId);
+    }
+
+    // seeded rows only, everything else goes with the users through ON DELETE CASCADE
+    @AfterAll
+    void clean() {
+        jdbcTemplate.update("delete from users where email like ?", EMAIL_PATTERN);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesShouldUseIndexes() {
+        return queries().entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    List<String> statements = RecordingStatementInspector.record(() ->
+                            transactionTemplate.executeWithoutResult(status -> {
+                                query.getValue().run();
+                                status.setRollbackOnly();
+                            }));
+                    assertFalse(statements.isEmpty(), "Запрос не выполнен");
+                    for (String sql : statements) {
+                        String plan = postgresql ? explainPostgresql(sql) : explainH2(sql);
+                        List<String> expected = postgresql || !H2_SCANS.containsKey(query.getKey())
+                                ? Collections.emptyList() : List.of(H2_SCANS.get(query.getKey()));
+                        assertEquals(expected, scans(plan), plan);
+                    }
+                }));
+    }
+
+    private Map<String, Runnable> queries() {
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("BookingStorage.findById", () -> bookingStorage.findById(bookingId));
+        queries.put("BookingStorage.findAllByBookerIdOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByBookerIdOrderByStartDescIdDesc(userId, page));
+        queries.put("BookingStorage.findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByBookerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(userId, now, now,
+                        page));
+        queries.put("BookingStorage.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, page));
+        queries.put("BookingStorage.findAllByBookerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByBookerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(userId, now, now,
+                        page));
+        queries.put("BookingStorage.findAllByBookerIdAndStatusOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByBookerIdAndStatusOrderByStartDescIdDesc(userId, StatusEnum.WAITING, page));
+        queries.put("BookingStorage.findAllByItemOwnerIdOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByItemOwnerIdOrderByStartDescIdDesc(userId, page));
+        queries.put("BookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndIsAfterOrderByStartDescIdDesc(userId, now, now,
+                        page));
+        queries.put("BookingStorage.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, page));
+        queries.put("BookingStorage.findAllByItemOwnerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByItemOwnerIdAndStartIsAfterAndEndIsAfterOrderByStartDescIdDesc(userId, now,
+                        now, page));
+        queries.put("BookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc", () ->
+                bookingStorage.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(userId, StatusEnum.REJECTED,
+                        page));
+        queries.put("BookingStorage.findAllWithItemByIdIn", () ->
+                bookingStorage.findAllWithItemByIdIn(List.of(bookingId, bookingId + 1)));
+        queries.put("BookingStorage.updateStatus", () ->
+                bookingStorage.updateStatus(bookingId, StatusEnum.WAITING, StatusEnum.APPROVED));
+        queries.put("BookingStorage.existsByItemIdAndStatusInAndStartBeforeAndEndAfter", () ->
+                bookingStorage.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, StatusEnum.BLOCKING,
+                        now.plusDays(1), now));
+        queries.put("BookingStorage.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc", () ->
+                bookingStorage.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(itemId,
+                        StatusEnum.BLOCKING, now.plusDays(1), now));
+        queries.put("BookingStorage.existsStartedByBookerIdAndItemId", () ->
+                bookingStorage.existsStartedByBookerIdAndItemId(userId, itemId, StatusEnum.APPROVED, now));
+        queries.put("BookingStorage.findNextStartByItemId", () -> bookingStorage.findNextStartByItemId(itemId, now));
+        queries.put("BookingStorage.findAllLastByItemIdIn", () ->
+                bookingStorage.findAllLastByItemIdIn(itemIds.subList(0, 10), now));
+        queries.put("BookingStorage.findAllNextByItemIdIn", () ->
+                bookingStorage.findAllNextByItemIdIn(itemIds.subList(0, 10), now, StatusEnum.APPROVED));
+        for (State state : State.values()) {
+            queries.put("BookingStorage.findFirst byBooker " + state, () ->
+                    bookingStorage.findFirst(inState(BookingSpecifications.byBooker(userId), state), 10));
+            queries.put("BookingStorage.findFirst byOwner " + state, () ->
+                    bookingStorage.findFirst(inState(BookingSpecifications.byOwner(userId), state), 10));
+        }
+        queries.put("BookingStorage.findFirst after cursor", () ->
+                bookingStorage.findFirst(BookingSpecifications.byBooker(userId)
+                        .and(BookingSpecifications.after(new BookingCursor(now, bookingId))), 10));
+        queries.put("BookingStorage.streamAll", () -> {
+            try (Stream<Booking> bookings = bookingStorage.streamAll(BookingSpecifications.byOwner(userId), 500)) {
+                bookings.forEach(booking -> { });
+            }
+        });
+        queries.put("ItemBookingSummaryStorage.findLockedByItemId", () ->
+                itemBookingSummaryStorage.findLockedByItemId(itemId));
+        queries.put("ItemBookingSummaryStorage.findDueItemIds", () ->
+                itemBookingSummaryStorage.findDueItemIds(now.minusHours(400), page));
+        queries.put("ItemBookingSummaryStorage.markDueByBookerId", () ->
+                itemBookingSummaryStorage.markDueByBookerId(userId, now));
+        queries.put("ItemStorage.findLockedById", () -> itemStorage.findLockedById(itemId));
+        queries.put("ItemStorage.search", () -> itemStorage.search("item1", page));
+        queries.put("ItemStorage.findAllByOwnerId", () -> itemStorage.findAllByOwnerId(userId, page));
+        queries.put("ItemStorage.findAllShortByRequestIdIn", () ->
+                itemStorage.findAllShortByRequestIdIn(requestIds.subList(0, 10)));
+        queries.put("ItemStorage.findAllShortByIdAfter", () -> itemStorage.findAllShortByIdAfter(itemId, page));
+        queries.put("ItemStorage.streamAllShortByOwnerId", () -> {
+            try (Stream<?> items = itemStorage.streamAllShortByOwnerId(userId)) {
+                items.forEach(item -> { });
+            }
+        });
+        queries.put("CommentStorage.findAllByItemIdOrderByDate", () -> commentStorage.findAllByItemIdOrderByDate(itemId));
+        queries.put("CommentStorage.findAllByItemIdInOrderByDate", () ->
+                commentStorage.findAllByItemIdInOrderByDate(itemIds.subList(0, 10)));
+        queries.put("ItemRequestStorage.findAllByRequesterIdIsNotOrderByCreatedDesc", () ->
+                itemRequestStorage.findAllByRequesterIdIsNotOrderByCreatedDesc(userId, page));
+        queries.put("ItemRequestStorage.findAllByRequesterId", () -> itemRequestStorage.findAllByRequesterId(userId));
+        queries.put("ItemRequestStorage.findAllIdsByIdIn", () ->
+                itemRequestStorage.findAllIdsByIdIn(requestIds.subList(0, 10)));
+        queries.put("UserStorage.existsById", () -> userStorage.existsById(userId));
+        return queries;
+    }
+
+    private Specification<Booking> inState(Specification<Booking> specification, State state) {
+        return specification.and(BookingSpecifications.inState(state, now));
+    }
+
+    // tables read in full; on H2 a walk over a whole index counts too unless it serves the ORDER BY
+    private List<String> scans(String plan) {
+        List<String> tables = new ArrayList<>();
+        Matcher matcher = (postgresql ? POSTGRESQL_SCAN : H2_ACCESS).matcher(plan);
+        while (matcher.find()) {
+            if (postgresql || matcher.group(2) != null || !plan.contains("/* index sorted */")) {
+                tables.add(matcher.group(1).toUpperCase());
+            }
+        }
+        return tables;
+    }
+
+    private String explainH2(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatement statement) -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                StringBuilder result = new StringBuilder();
+                while (plan.next()) {
+                    result.append(plan.getString(1)).append('\n');
+                }
+                return result.toString();
+            }
+        });
+    }
+
+    // the generic plan does not depend on parameter values; with seq scans disabled only a missing index leaves one
+    private String explainPostgresql(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String values = Stream.generate(() -> "null").limit(parameters).collect(Collectors.joining(", "));
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("set local plan_cache_mode = force_generic_plan");
+            statement.execute("set local enable_seqscan = off");
+            statement.execute("prepare plan_check as " + numbered);
+            StringBuilder result = new StringBuilder();
+            try (ResultSet plan = statement.executeQuery("explain execute plan_check"
+                    + (values.isEmpty() ? "" : "(" + values + ")"))) {
+                while (plan.next()) {
+                    result.append(plan.getString(1)).append('\n');
+                }
+            }
+            statement.execute("deallocate plan_check");
+            status.setRollbackOnly();
+            return result.toString();
+        }));
+    }
+}
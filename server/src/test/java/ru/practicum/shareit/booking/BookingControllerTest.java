@@ -0,0 +1,185 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusEnum;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingControllerTest {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int BOOKINGS = 7;
+    private static final int PAGE_SIZE = 3;
+    private static final int CONCURRENT_CREATES = 8;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private User booker;
+    private User owner;
+    private Item item;
+    private List<Integer> expected;
+
+    @BeforeEach
+    void setUp() {
+        owner = userStorage.save(User.builder().name("Владелец").email("owner@mail.ru").build());
+        booker = userStorage.save(User.builder().name("Арендатор").email("booker@mail.ru").build());
+        item = itemStorage.save(Item.builder().name("Дрель").description("Дрель").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // pairs of bookings share a start, so only the id breaks the tie
+            bookings.add(Booking.builder()
+                    .start(start.plusHours(i / 2))
+                    .end(start.plusHours(i / 2 + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(StatusEnum.WAITING)
+                    .build());
+        }
+        expected = bookingStorage.saveAll(bookings).stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingStorage.deleteAll();
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void findAllByBookerShouldWalkCursorPagesFromFirst() throws Exception {
+        assertEquals(expected, walk("/bookings", booker, "first"));
+        assertEquals(expected, walk("/bookings", booker, ""));
+    }
+
+    @Test
+    void findAllByOwnerShouldWalkCursorPagesFromFirst() throws Exception {
+        assertEquals(expected, walk("/bookings/owner", owner, "first"));
+    }
+
+    @Test
+    void findAllByOwnerShouldPageWithOffsetWithoutCursorHeader() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int from = 0; from < BOOKINGS; from += PAGE_SIZE) {
+            MvcResult result = mockMvc.perform(get("/bookings/owner")
+                            .header("X-Sharer-User-Id", owner.getId())
+                            .param("from", String.valueOf(from))
+                            .param("size", String.valueOf(PAGE_SIZE)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertNull(result.getResponse().getHeader(NEXT_CURSOR_HEADER));
+            ids.addAll(ids(result));
+        }
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void createShouldAcceptOnlyOneOfConcurrentIdenticalRequests() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CREATES);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime start = LocalDateTime.now().plusDays(10 + round).withNano(0);
+                String body = objectMapper.writeValueAsString(BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(start)
+                        .end(start.plusHours(2))
+                        .build());
+                CountDownLatch ready = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_CREATES; i++) {
+                    results.add(executor.submit(() -> {
+                        ready.await();
+                        return mockMvc.perform(post("/bookings")
+                                        .header("X-Sharer-User-Id", booker.getId())
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+                ready.countDown();
+
+                List<Integer> statuses = new ArrayList<>();
+                for (Future<Integer> result : results) {
+                    statuses.add(result.get());
+                }
+                assertEquals(1, statuses.stream().filter(s -> s == 200).count(), statuses.toString());
+                assertEquals(CONCURRENT_CREATES - 1, statuses.stream().filter(s -> s == 409).count(),
+                        statuses.toString());
+            }
+            assertEquals(BOOKINGS + ROUNDS, bookingStorage.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Integer> walk(String path, User user, String first) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = first;
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get(path)
+                            .header("X-Sharer-User-Id", user.getId())
+                            .param("after", cursor)
+                            .param("size", String.valueOf(PAGE_SIZE)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ids.addAll(ids(result));
+            cursor = result.getResponse().getHeader(NEXT_CURSOR_HEADER);
+        }
+        return ids;
+    }
+
+    private List<Integer> ids(MvcResult result) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode booking : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            ids.add(booking.get("id").asInt());
+        }
+        return ids;
+    }
+}
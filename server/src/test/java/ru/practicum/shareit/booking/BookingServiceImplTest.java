@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusEnum;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exceptions.DuplicatedException;
+import ru.practicum.shareit.exceptions.ValidationElementException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userStorage.save(User.builder().name("Владелец").email("owner@mail.ru").build());
+        booker = userStorage.save(User.builder().name("Арендатор").email("booker@mail.ru").build());
+        item = itemStorage.save(Item.builder().name("Дрель").description("Дрель").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingStorage.deleteAll();
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void updateStatusShouldLetOnlyOneConcurrentDecisionWin() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Booking booking = saveWaiting(round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<BookingDto>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    boolean approved = i % 2 == 0;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return bookingService.updateStatus(owner.getId(), booking.getId(), approved);
+                    }));
+                }
+                start.countDown();
+
+                List<BookingDto> winners = new ArrayList<>();
+                for (Future<BookingDto> result : results) {
+                    try {
+                        winners.add(result.get());
+                    } catch (ExecutionException ex) {
+                        assertTrue(ex.getCause() instanceof ValidationElementException
+                                || ex.getCause() instanceof DuplicatedException, ex.getCause().toString());
+                    }
+                }
+
+                assertEquals(1, winners.size());
+                Booking stored = bookingStorage.findById(booking.getId()).orElseThrow();
+                assertEquals(winners.get(0).getStatus(), stored.getStatus());
+                assertEquals(1, stored.getVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateStatusShouldRejectDecidedBooking() {
+        Booking booking = saveWaiting(0);
+        bookingService.updateStatus(owner.getId(), booking.getId(), true);
+
+        assertThrows(ValidationElementException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), false));
+        assertEquals(StatusEnum.APPROVED, bookingStorage.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    private Booking saveWaiting(int day) {
+        LocalDateTime start = LocalDateTime.now().plusDays(day + 1);
+        return bookingStorage.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(StatusEnum.WAITING)
+                .build());
+    }
+}
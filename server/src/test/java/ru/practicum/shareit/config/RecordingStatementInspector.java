@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordingStatementInspector extends StatementCounter {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return super.inspect(sql);
+    }
+
+    // SQL prepared by the action on the calling thread
+    public static List<String> record(Runnable action) {
+        STATEMENTS.set(new ArrayList<>());
+        try {
+            action.run();
+            return STATEMENTS.get();
+        } finally {
+            STATEMENTS.remove();
+        }
+    }
+}
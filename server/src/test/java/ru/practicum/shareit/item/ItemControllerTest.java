@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusEnum;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryStorage;
+import ru.practicum.shareit.config.StatementCounter;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+
+    private static final int COMMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemBookingSummaryStorage itemBookingSummaryStorage;
+    @Autowired
+    private CommentStorage commentStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Integer> bookerIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        itemBookingSummaryStorage.deleteAll();
+        commentStorage.deleteAll();
+        bookingStorage.deleteAll();
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void getAllItemsByUserIdShouldRunConstantNumberOfStatements() {
+        User oneOwner = seed(1);
+        User manyOwner = seed(25);
+
+        int fresh = countStatements(oneOwner, 1);
+        assertTrue(fresh > 0);
+        assertEquals(fresh, countStatements(manyOwner, 25));
+
+        // summaries that are due are recomputed for all items of the page at once
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        transactionTemplate.executeWithoutResult(status ->
+                bookerIds.forEach(bookerId -> itemBookingSummaryStorage.markDueByBookerId(bookerId, past)));
+
+        int due = countStatements(oneOwner, 1);
+        assertTrue(due > fresh);
+        assertEquals(due, countStatements(manyOwner, 25));
+    }
+
+    private User seed(int items) {
+        User owner = userStorage.save(User.builder().name("Владелец").email(items + "@owner.ru").build());
+        User booker = userStorage.save(User.builder().name("Арендатор").email(items + "@booker.ru").build());
+        bookerIds.add(booker.getId());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items; i++) {
+            Item item = itemStorage.save(Item.builder().name("Дрель " + i).description("Дрель").available(true)
+                    .owner(owner).build());
+            bookingStorage.save(Booking.builder()
+                    .start(now.minusDays(2))
+                    .end(now.minusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(StatusEnum.APPROVED)
+                    .build());
+            for (int j = 0; j < COMMENTS; j++) {
+                commentStorage.save(Comment.builder().text("Отзыв " + j).item(item).author(booker)
+                        .date(now.minusHours(j)).build());
+            }
+            BookingDto next = bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(now.plusDays(1))
+                    .end(now.plusDays(2))
+                    .build());
+            bookingService.updateStatus(owner.getId(), next.getId(), true);
+        }
+        return owner;
+    }
+
+    private int countStatements(User owner, int items) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        return StatementCounter.count(() -> {
+            try {
+                mockMvc.perform(get("/items")
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .param("size", "50"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(items))
+                        .andExpect(jsonPath("$[0].lastBooking.id").exists())
+                        .andExpect(jsonPath("$[0].nextBooking.id").exists())
+                        .andExpect(jsonPath("$[0].comments.length()").value(COMMENTS));
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class IndexItemSearchTest {
+
+    private static final String[] NAMES = {"Дрель", "Отвертка", "Пила", "Дрель ударная", "Лестница", "Пылесос"};
+    private static final String[] DESCRIPTIONS = {"Аккумуляторная", "Крестовая, для ДРЕЛИ", "Ручная по дереву",
+            "Мощная 100%", "Складная_3м", "Моющий"};
+    private static final String[] QUERIES = {"д", "р", "пи", "Д", ",", "%", "_", "дре", "ДрЕлЬ", "дерев", "100%",
+            "складная_", "ая", "лестница складная", "нет такого"};
+
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userStorage.save(User.builder().name("Владелец").email("owner@mail.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            items.add(Item.builder()
+                    .name(NAMES[i % NAMES.length])
+                    .description(DESCRIPTIONS[i / NAMES.length % DESCRIPTIONS.length])
+                    .available(i % 7 != 0)
+                    .owner(owner)
+                    .build());
+        }
+        itemStorage.saveAll(items);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void searchShouldMatchSql() {
+        IndexItemSearch search = new IndexItemSearch(itemStorage, DataSize.ofMegabytes(16));
+        search.build();
+        for (String query : QUERIES) {
+            for (int from : new int[]{0, 5, 10, 45}) {
+                assertEquals(sqlIds(query, from, 10), ids(search.search(query, from, 10)), query + " from " + from);
+            }
+        }
+    }
+
+    @Test
+    void searchShouldFallBackToSqlOnOverflow() {
+        IndexItemSearch search = new IndexItemSearch(itemStorage, DataSize.ofKilobytes(1));
+        search.build();
+        for (String query : QUERIES) {
+            assertEquals(sqlIds(query, 0, 10), ids(search.search(query, 0, 10)), query);
+        }
+    }
+
+    @Test
+    void searchShouldSkipDeletedAndUnavailableItems() {
+        IndexItemSearch search = new IndexItemSearch(itemStorage, DataSize.ofMegabytes(16));
+        search.build();
+        List<Item> found = search.search("дрел", 0, 10);
+        itemStorage.deleteById(found.get(0).getId());
+        Item unavailable = itemStorage.findById(found.get(1).getId()).orElseThrow();
+        unavailable.setAvailable(false);
+        itemStorage.save(unavailable);
+
+        List<Integer> ids = ids(search.search("дрел", 0, 10));
+
+        assertEquals(sqlIds("дрел", 0, 10), ids);
+        assertFalse(ids.contains(found.get(0).getId()));
+        assertFalse(ids.contains(found.get(1).getId()));
+    }
+
+    @Test
+    void indexShouldApplyChangesAndOwnerRemoval() {
+        IndexItemSearch search = new IndexItemSearch(itemStorage, DataSize.ofMegabytes(16));
+        search.build();
+        Item item = itemStorage.save(Item.builder().name("Молоток").description("Слесарный").available(true)
+                .owner(owner).build());
+        search.index(item);
+        assertEquals(List.of(item.getId()), ids(search.search("молот", 0, 10)));
+
+        search.removeAllByOwnerId(owner.getId());
+
+        assertEquals(List.of(), ids(search.search("молот", 0, 10)));
+        assertEquals(List.of(), ids(search.search("дрел", 0, 10)));
+    }
+
+    private List<Integer> sqlIds(String text, int from, int size) {
+        return ids(itemStorage.search(text, PageRequest.of(from / size, size)));
+    }
+
+    private List<Integer> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
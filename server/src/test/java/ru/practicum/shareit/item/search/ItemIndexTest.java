@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIndexTest {
+
+    private ItemIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemIndex(Long.MAX_VALUE);
+        index.put(1, 10, "Дрель", "Аккумуляторная дрель", false);
+        index.put(2, 10, "Отвертка", "Крестовая, для дрели", false);
+        index.put(3, 20, "Пила", "Ручная пила по дереву", false);
+        index.put(4, 20, "Дрель ударная", "Мощная", false);
+    }
+
+    @Test
+    void searchShouldMatchSubstringCaseInsensitive() {
+        assertEquals(List.of(1, 4, 2), index.search("дРеЛ", 0, 10));
+        assertEquals(List.of(3), index.search("ДЕРЕВ", 0, 10));
+        assertEquals(List.of(), index.search("молоток", 0, 10));
+    }
+
+    @Test
+    void searchShouldPutNameMatchesFirst() {
+        assertEquals(List.of(1, 4, 2), index.search("дрел", 0, 10));
+    }
+
+    @Test
+    void searchShouldHandleShortQueries() {
+        assertEquals(List.of(3), index.search("пи", 0, 10));
+        assertEquals(List.of(1, 2, 4, 3), index.search("р", 0, 10));
+        assertEquals(List.of(2), index.search(",", 0, 10));
+        assertEquals(List.of(), index.search("ъ", 0, 10));
+    }
+
+    @Test
+    void searchShouldPage() {
+        assertEquals(List.of(1, 2), index.search("р", 0, 2));
+        assertEquals(List.of(4, 3), index.search("р", 2, 2));
+        assertEquals(List.of(), index.search("р", 4, 2));
+    }
+
+    @Test
+    void searchShouldVerifyLongQueriesAgainstText() {
+        index.put(5, 30, "абв", "вгд", false);
+        assertEquals(List.of(), index.search("абвгд", 0, 10));
+    }
+
+    @Test
+    void removeShouldDropDocument() {
+        index.remove(1);
+        assertEquals(List.of(4, 2), index.search("дрел", 0, 10));
+        assertEquals(List.of(4, 2, 3), index.search("д", 0, 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void putWithReplaceShouldReindexDocument() {
+        index.put(1, 10, "Молоток", "Слесарный", false);
+        assertEquals(List.of(1, 4, 2), index.search("дрел", 0, 10));
+        index.put(1, 10, "Молоток", "Слесарный", true);
+        assertEquals(List.of(4, 2), index.search("дрел", 0, 10));
+        assertEquals(List.of(1), index.search("молот", 0, 10));
+    }
+
+    @Test
+    void removeAllByOwnerIdShouldDropOwnerDocuments() {
+        index.removeAllByOwnerId(10);
+        assertEquals(List.of(4), index.search("дрел", 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void putShouldAcceptMissingOwner() {
+        index.put(5, null, "Дрель", null, false);
+        assertEquals(List.of(1, 4, 5, 2), index.search("дрел", 0, 10));
+        index.removeAllByOwnerId(null);
+        assertEquals(List.of(1, 4, 2), index.search("дрел", 0, 10));
+    }
+
+    @Test
+    void putShouldOverflowWhenBytesExceedLimit() {
+        ItemIndex small = new ItemIndex(16 * 1024);
+        assertTrue(small.put(1, 10, "Дрель", "Аккумуляторная дрель", false));
+        assertFalse(small.put(2, 10, "Отвертка", "Крестовая отвертка с набором бит, удлинителем и кейсом "
+                + "из ударопрочного пластика для хранения в гараже или мастерской", false));
+        assertTrue(small.isOverflowed());
+        assertEquals(0, small.size());
+        assertFalse(small.put(3, 10, "Пила", "Ручная", false));
+    }
+
+    @Test
+    void removeShouldReleaseBytes() {
+        ItemIndex small = new ItemIndex(16 * 1024);
+        for (int id = 1; id <= 100; id++) {
+            assertTrue(small.put(id, 10, "Дрель", "Аккумуляторная дрель", false));
+            small.remove(id);
+        }
+        assertFalse(small.isOverflowed());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemRequestServiceImplTest {
+
+    private static final int ANSWERS = 2;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemRequestStorage itemRequestStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        itemStorage.deleteAll();
+        itemRequestStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void findAllByUserIdShouldRunConstantNumberOfStatements() {
+        long one = countStatements(1);
+        long many = countStatements(25);
+
+        assertEquals(one, many);
+    }
+
+    private long countStatements(int requests) {
+        User requester = userStorage.save(User.builder().name("Автор").email(requests + "@requester.ru").build());
+        User owner = userStorage.save(User.builder().name("Владелец").email(requests + "@owner.ru").build());
+        for (int i = 0; i < requests; i++) {
+            ItemRequest request = itemRequestStorage.save(ItemRequest.builder()
+                    .description("Нужна дрель " + i)
+                    .requester(requester)
+                    .build());
+            for (int j = 0; j < ANSWERS; j++) {
+                itemStorage.save(Item.builder().name("Дрель").description("Ответ " + j).available(true)
+                        .owner(owner).request(request).build());
+            }
+        }
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> found = itemRequestService.findAllByUserId(requester.getId());
+
+        assertEquals(requests, found.size());
+        found.forEach(request -> assertEquals(ANSWERS, request.getItems().size()));
+        return statistics.getPrepareStatementCount();
+    }
+}